@@ -0,0 +1,31 @@
+package ars.invoke;
+
+import ars.invoke.Invoker;
+import ars.invoke.Resource;
+import ars.invoke.InvokeCallback;
+import ars.invoke.request.Requester;
+
+/**
+ * 异步服务调用接口
+ * 
+ * 实现应在调用完成（成功或失败）后通过回调对象通知结果且只通知一次，异步执行方法本身抛出异常时视为调用失败且不应再通知回调对象
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public interface AsyncInvoker extends Invoker {
+	/**
+	 * 异步执行请求调用
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @param resource
+	 *            接口资源
+	 * @param callback
+	 *            调用结果回调对象
+	 * @throws Exception
+	 *             操作异常
+	 */
+	public void execute(Requester requester, Resource resource, InvokeCallback callback) throws Exception;
+
+}
@@ -2,7 +2,10 @@ package ars.invoke;
 
 import java.util.Set;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.io.Serializable;
 
 import ars.util.Beans;
@@ -23,10 +26,40 @@ public class Cacheable implements Serializable {
 	 */
 	public static final int DEFAULT_TIMEOUT = 30 * 60;
 
+	/**
+	 * 摘要长度（SHA-256摘要16进制字符）
+	 */
+	private static final int DIGEST_LENGTH = 64;
+
+	/**
+	 * 参数名称排序缓存最大数量
+	 */
+	private static final int MAX_ORDERS = 1024;
+
+	/**
+	 * 线程缓冲区最大保留容量
+	 */
+	private static final int MAX_BUFFER_CAPACITY = 8 * 1024;
+
+	/**
+	 * 缓存标识构建线程缓冲区
+	 */
+	private static final ThreadLocal<StringBuilder> buffers = new ThreadLocal<StringBuilder>() {
+
+		@Override
+		protected StringBuilder initialValue() {
+			return new StringBuilder(256);
+		}
+
+	};
+
 	private int timeout = DEFAULT_TIMEOUT; // 缓存超时时间（秒）
 	private boolean global = true; // 是否是全局缓存
+	private boolean digest; // 是否使用SHA-256摘要作为参数部分缓存标识
 	private String target; // 缓存目标地址
 	private String refresh; // 缓存刷新触发地址
+	private String[] parameters; // 参与缓存标识计算的参数名称数组（为空表示所有参数）
+	private transient volatile ConcurrentMap<String, String[]> orders; // 资源地址/参数名称排序映射
 
 	public int getTimeout() {
 		return timeout;
@@ -44,6 +77,28 @@ public class Cacheable implements Serializable {
 		this.global = global;
 	}
 
+	public boolean isDigest() {
+		return digest;
+	}
+
+	public void setDigest(boolean digest) {
+		this.digest = digest;
+	}
+
+	public String[] getParameters() {
+		return parameters;
+	}
+
+	public void setParameters(String... parameters) {
+		if (parameters == null || parameters.length == 0) {
+			this.parameters = null;
+		} else {
+			String[] copy = Arrays.copyOf(parameters, parameters.length);
+			Arrays.sort(copy);
+			this.parameters = copy;
+		}
+	}
+
 	public String getTarget() {
 		return target;
 	}
@@ -60,9 +115,118 @@ public class Cacheable implements Serializable {
 		this.refresh = refresh;
 	}
 
+	/**
+	 * 获取请求参数名称有序数组
+	 * 
+	 * 相同资源地址的请求参数名称相同时复用上一次的排序结果
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @return 参数名称数组
+	 */
+	protected String[] getParameterNames(Requester requester) {
+		if (this.parameters != null) {
+			return this.parameters;
+		}
+		Set<String> names = requester.getParameterNames();
+		if (names.isEmpty()) {
+			return Strings.EMPTY_ARRAY;
+		}
+		ConcurrentMap<String, String[]> orders = this.orders;
+		if (orders == null) {
+			synchronized (this) {
+				if ((orders = this.orders) == null) {
+					this.orders = orders = new ConcurrentHashMap<String, String[]>();
+				}
+			}
+		}
+		String[] order = orders.get(requester.getUri());
+		if (order != null && order.length == names.size()) {
+			int i = 0;
+			while (i < order.length && names.contains(order[i])) {
+				i++;
+			}
+			if (i == order.length) {
+				return order;
+			}
+		}
+		order = names.toArray(Strings.EMPTY_ARRAY);
+		Arrays.sort(order);
+		if (orders.size() < MAX_ORDERS) {
+			orders.put(requester.getUri(), order);
+		}
+		return order;
+	}
+
+	/**
+	 * 判断数组是否已按自然顺序排序
+	 * 
+	 * @param array
+	 *            对象数组
+	 * @return true/false
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static boolean isSorted(Object[] array) {
+		for (int i = 1; i < array.length; i++) {
+			if (((Comparable) array[i - 1]).compareTo(array[i]) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 判断集合是否已按自然顺序排序
+	 * 
+	 * @param collection
+	 *            集合对象
+	 * @return true/false
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static boolean isSorted(Collection<?> collection) {
+		Iterator<?> iterator = collection.iterator();
+		Object previous = iterator.next();
+		while (iterator.hasNext()) {
+			Object current = iterator.next();
+			if (((Comparable) previous).compareTo(current) > 0) {
+				return false;
+			}
+			previous = current;
+		}
+		return true;
+	}
+
+	/**
+	 * 将参数值追加到缓存标识
+	 * 
+	 * @param buffer
+	 *            缓存标识缓冲区
+	 * @param key
+	 *            参数名称
+	 * @param value
+	 *            参数值
+	 */
+	private static void append(StringBuilder buffer, String key, Object value) {
+		buffer.append(key).append('=');
+		if (Beans.isEmpty(value)) {
+			return;
+		} else if (value instanceof CharSequence) {
+			buffer.append((CharSequence) value);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short
+				|| value instanceof Byte) {
+			buffer.append(((Number) value).longValue());
+		} else if (value instanceof Boolean) {
+			buffer.append(((Boolean) value).booleanValue());
+		} else {
+			buffer.append(Strings.toString(value));
+		}
+	}
+
 	/**
 	 * 获取请求对应的资源数据缓存标识
 	 * 
+	 * 缓存标识以“{资源地址}”开头，非全局缓存随后为“{用户}”；开启摘要后参数部分超过64个字符时使用SHA-256摘要代替，参数部分较短时保留原文，用户部分始终保留原文
+	 * 
 	 * @param requester
 	 *            请求对象
 	 * @return 缓存标识
@@ -71,53 +235,66 @@ public class Cacheable implements Serializable {
 		if (requester == null) {
 			throw new IllegalArgumentException("Illegal requester:" + requester);
 		}
-		StringBuilder buffer = new StringBuilder("{").append(requester.getUri()).append("}{");
-		if (requester.getUser() != null && !this.global) {
-			buffer.append(requester.getUser()).append("}{");
-		}
-		Set<String> names = requester.getParameterNames();
-		if (!names.isEmpty()) {
-			String[] keys = names.toArray(Strings.EMPTY_ARRAY);
-			Arrays.sort(keys);
-			for (int i = 0; i < keys.length; i++) {
-				if (i > 0) {
+		StringBuilder buffer = buffers.get();
+		buffer.setLength(0);
+		try {
+			buffer.append('{').append(requester.getUri()).append('}');
+			if (requester.getUser() != null && !this.global) {
+				buffer.append('{').append(requester.getUser()).append('}');
+			}
+			int start = buffer.length();
+			buffer.append('{');
+			String[] keys = this.getParameterNames(requester);
+			for (int i = 0, n = 0; i < keys.length; i++) {
+				String key = keys[i];
+				if (this.parameters != null && !requester.hasParameter(key)) {
+					continue;
+				}
+				if (n++ > 0) {
 					buffer.append(',');
 				}
-				String key = keys[i];
 				Object value = requester.getParameter(key);
 				if (value instanceof Collection) {
 					Collection<?> collection = (Collection<?>) value;
 					if (!collection.isEmpty()) {
-						Object[] array = collection.toArray();
-						Arrays.sort(array);
-						for (Object v : array) {
-							buffer.append(key).append('=');
-							if (!Beans.isEmpty(v)) {
-								buffer.append(Strings.toString(v));
+						if (isSorted(collection)) {
+							for (Object v : collection) {
+								append(buffer, key, v);
+							}
+						} else {
+							Object[] array = collection.toArray();
+							Arrays.sort(array);
+							for (Object v : array) {
+								append(buffer, key, v);
 							}
 						}
 					}
 				} else if (value instanceof Object[]) {
 					Object[] array = (Object[]) value;
 					if (array.length > 0) {
-						Object[] copy = Arrays.copyOf(array, array.length);
-						Arrays.sort(copy);
-						for (Object v : copy) {
-							buffer.append(key).append('=');
-							if (!Beans.isEmpty(v)) {
-								buffer.append(Strings.toString(v));
-							}
+						if (!isSorted(array)) {
+							array = Arrays.copyOf(array, array.length);
+							Arrays.sort(array);
+						}
+						for (Object v : array) {
+							append(buffer, key, v);
 						}
 					}
 				} else {
-					buffer.append(key).append('=');
-					if (!Beans.isEmpty(value)) {
-						buffer.append(Strings.toString(value));
-					}
+					append(buffer, key, value);
 				}
 			}
+			buffer.append('}');
+			if (this.digest && buffer.length() - start > DIGEST_LENGTH + 2) {
+				return new StringBuilder(start + DIGEST_LENGTH + 2).append(buffer, 0, start).append('{')
+						.append(Strings.sha256(buffer, start, buffer.length())).append('}').toString();
+			}
+			return buffer.toString();
+		} finally {
+			if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+				buffers.remove();
+			}
 		}
-		return buffer.append('}').toString();
 	}
 
 }
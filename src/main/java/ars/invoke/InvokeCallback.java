@@ -0,0 +1,18 @@
+package ars.invoke;
+
+/**
+ * 请求调用结果回调接口
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public interface InvokeCallback {
+	/**
+	 * 请求调用完成
+	 * 
+	 * @param result
+	 *            调用结果，调用失败时为异常对象
+	 */
+	public void complete(Object result);
+
+}
@@ -1,12 +1,15 @@
 package ars.invoke;
 
 import java.util.Date;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ars.util.Strings;
-import ars.util.Servers;
+import ars.util.AbstractServer;
 import ars.invoke.Invokes;
 import ars.invoke.request.Requester;
 import ars.invoke.event.InvokeListener;
@@ -15,15 +18,33 @@ import ars.invoke.event.InvokeCompleteEvent;
 /**
  * 请求调用日志记录器
  * 
+ * 异步输出时请求线程只将请求对象、时间戳及结果写入环形缓冲区，由单个后台线程批量格式化并输出；缓冲区已满时根据配置阻塞等待或丢弃日志（异常日志在请求线程中直接输出）
+ * 
  * @author yongqiangwu
  * 
  */
 public class InvokeLogger implements InvokeListener<InvokeCompleteEvent> {
+	/**
+	 * 默认缓冲区大小
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/**
+	 * 默认批量输出日志数量
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
 	protected static final Logger logger = LoggerFactory.getLogger(InvokeLogger.class);
 
 	private String pattern; // 资源地址匹配模式
 	private boolean async; // 是否异步输出日志
 	private boolean console; // 是否在控制台打印日志
+	private boolean blocking; // 异步缓冲区已满时是否阻塞等待
+	private int limit; // 请求参数及结果输出的最大长度，0表示不限制
+	private int bufferSize = DEFAULT_BUFFER_SIZE; // 异步缓冲区大小
+	private int batchSize = DEFAULT_BATCH_SIZE; // 批量输出日志数量
+	private volatile RingBuffer buffer; // 异步日志缓冲区
+	private final AtomicLong dropped = new AtomicLong(); // 丢弃日志数量
 
 	public String getPattern() {
 		return pattern;
@@ -49,6 +70,206 @@ public class InvokeLogger implements InvokeListener<InvokeCompleteEvent> {
 		this.console = console;
 	}
 
+	public boolean isBlocking() {
+		return blocking;
+	}
+
+	public void setBlocking(boolean blocking) {
+		this.blocking = blocking;
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public void setLimit(int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Illegal limit:" + limit);
+		}
+		this.limit = limit;
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("Illegal bufferSize:" + bufferSize);
+		}
+		this.bufferSize = bufferSize;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Illegal batchSize:" + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * 获取异步缓冲区已满时丢弃的日志数量
+	 * 
+	 * @return 丢弃日志数量
+	 */
+	public long getDropped() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * 日志记录
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	static class Record {
+		public final Requester requester; // 请求对象
+		public final Date timestamp; // 时间戳
+		public final Object value; // 请求结果值
+
+		public Record(Requester requester, Date timestamp, Object value) {
+			this.requester = requester;
+			this.timestamp = timestamp;
+			this.value = value;
+		}
+
+	}
+
+	/**
+	 * 多生产者单消费者环形日志缓冲区
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	class RingBuffer extends AbstractServer {
+		private final int mask;
+		private final AtomicReferenceArray<Record> records;
+		private final AtomicLong tail = new AtomicLong(); // 生产者写入位置
+		private volatile long head; // 消费者读取位置
+		private volatile boolean running = true;
+
+		public RingBuffer(int size) {
+			int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+			this.mask = capacity - 1;
+			this.records = new AtomicReferenceArray<Record>(capacity);
+		}
+
+		/**
+		 * 写入日志记录
+		 * 
+		 * @param record
+		 *            日志记录
+		 * @return 是否写入成功（缓冲区已满时返回false）
+		 */
+		public boolean offer(Record record) {
+			long position;
+			do {
+				position = this.tail.get();
+				if (position - this.head > this.mask) {
+					return false;
+				}
+			} while (!this.tail.compareAndSet(position, position + 1));
+			this.records.lazySet((int) (position & this.mask), record);
+			return true;
+		}
+
+		/**
+		 * 批量读取并输出日志记录
+		 * 
+		 * @param buffer
+		 *            日志格式化缓冲区
+		 * @return 输出日志数量
+		 */
+		protected int drain(StringBuilder buffer) {
+			int count = 0;
+			while (count < batchSize) {
+				int index = (int) (this.head & this.mask);
+				Record record = this.records.get(index);
+				if (record == null) {
+					break;
+				}
+				this.records.lazySet(index, null);
+				this.head++;
+				count++;
+				if (record.value instanceof Throwable) {
+					output(buffer);
+					log(record.requester, record.timestamp, record.value);
+				} else {
+					Invokes.appendLog(buffer, record.requester, record.timestamp, record.value, limit);
+				}
+			}
+			output(buffer);
+			return count;
+		}
+
+		@Override
+		public void run() {
+			StringBuilder buffer = new StringBuilder();
+			while (this.running && !Thread.currentThread().isInterrupted()) {
+				try {
+					if (this.drain(buffer) == 0) {
+						LockSupport.parkNanos(5000000);
+					}
+				} catch (Exception e) {
+					logger.error("Invoke log output failed", e);
+				}
+				if (buffer.capacity() > 1024 * 1024) {
+					buffer = new StringBuilder();
+				}
+			}
+			while (this.drain(buffer) > 0) {
+			}
+		}
+
+		@Override
+		public void stop() {
+			this.running = false;
+			super.stop();
+		}
+
+	}
+
+	/**
+	 * 获取异步日志缓冲区
+	 * 
+	 * @return 异步日志缓冲区
+	 */
+	protected RingBuffer getBuffer() {
+		RingBuffer buffer = this.buffer;
+		if (buffer == null || !buffer.running) {
+			synchronized (this) {
+				if ((buffer = this.buffer) == null || !buffer.running) {
+					buffer = new RingBuffer(this.bufferSize);
+					buffer.setDaemon(true);
+					buffer.start();
+					this.buffer = buffer;
+				}
+			}
+		}
+		return buffer;
+	}
+
+	/**
+	 * 输出批量日志信息
+	 * 
+	 * @param buffer
+	 *            日志缓冲区
+	 */
+	protected void output(StringBuilder buffer) {
+		if (buffer.length() > 0) {
+			if (this.console) {
+				System.out.print(buffer);
+			} else {
+				logger.debug(buffer.toString());
+			}
+			buffer.setLength(0);
+		}
+	}
+
 	/**
 	 * 记录日志信息
 	 * 
@@ -60,7 +281,7 @@ public class InvokeLogger implements InvokeListener<InvokeCompleteEvent> {
 	 *            请求结果值
 	 */
 	protected void log(Requester requester, Date timestamp, Object value) {
-		String message = Invokes.getLog(requester, timestamp, value);
+		String message = Invokes.appendLog(new StringBuilder(), requester, timestamp, value, this.limit).toString();
 		if (this.console) {
 			System.out.print(message);
 			if (value instanceof Throwable) {
@@ -74,20 +295,24 @@ public class InvokeLogger implements InvokeListener<InvokeCompleteEvent> {
 	}
 
 	@Override
-	public void onInvokeEvent(final InvokeCompleteEvent event) {
-		final Object value = event.getValue();
+	public void onInvokeEvent(InvokeCompleteEvent event) {
+		Object value = event.getValue();
 		if (value instanceof Throwable
 				|| ((this.console || logger.isDebugEnabled()) && (this.pattern == null || Strings.matches(event
 						.getSource().getUri(), this.pattern)))) {
 			if (this.async) {
-				Servers.submit(new Runnable() {
-
-					@Override
-					public void run() {
-						log(event.getSource(), event.getTimestamp(), value);
+				RingBuffer buffer = this.getBuffer();
+				Record record = new Record(event.getSource(), event.getTimestamp(), value);
+				while (!buffer.offer(record)) {
+					if (value instanceof Throwable) {
+						this.log(record.requester, record.timestamp, value);
+						return;
+					} else if (!this.blocking || !buffer.running) {
+						this.dropped.incrementAndGet();
+						return;
 					}
-
-				});
+					LockSupport.parkNanos(100000);
+				}
 			} else {
 				this.log(event.getSource(), event.getTimestamp(), value);
 			}
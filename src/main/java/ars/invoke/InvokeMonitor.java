@@ -0,0 +1,301 @@
+package ars.invoke;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+import javax.management.MBeanServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ars.util.Strings;
+import ars.util.Histogram;
+import ars.invoke.Router;
+import ars.invoke.Channel;
+import ars.invoke.Context;
+import ars.invoke.InvokeMonitorMXBean;
+import ars.invoke.local.Api;
+import ars.invoke.request.Requester;
+import ars.invoke.event.InvokeListener;
+import ars.invoke.event.InvokeCompleteEvent;
+
+/**
+ * 请求调用监控器
+ * 
+ * 按资源地址统计调用耗时分布、吞吐量、异常类型及缓存命中情况；已注册接口始终统计，其他资源地址（通配匹配、未注册或非法地址）仅在统计数量未超过上限时统计，避免统计指标无限增长；统计信息通过JMX（ars:type=InvokeMonitor，需调用register方法注册，并在销毁时调用unregister方法注销，如配置为Spring Bean的init-method/destroy-method）及接口资源（system/monitor/statistics）获取
+ * 
+ * @author yongqiangwu
+ * 
+ */
+@Api("system/monitor")
+public class InvokeMonitor implements InvokeListener<InvokeCompleteEvent>, InvokeMonitorMXBean {
+	private static final Logger logger = LoggerFactory.getLogger(InvokeMonitor.class);
+
+	/**
+	 * JMX对象名称
+	 */
+	public static final String OBJECT_NAME = "ars:type=InvokeMonitor";
+
+	/**
+	 * 默认非注册接口资源地址最大统计数量
+	 */
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	/**
+	 * 忽略统计标记
+	 */
+	private static final Metric IGNORED = new Metric();
+
+	private String pattern; // 资源地址匹配模式
+	private int capacity = DEFAULT_CAPACITY; // 资源地址最大统计数量（已注册接口除外）
+	private volatile long since = System.currentTimeMillis(); // 统计开始时间
+	private ObjectName objectName; // 已注册的JMX对象名称
+	private final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>(); // 资源地址/调用指标映射
+
+	/**
+	 * 将监控器注册到JMX平台服务，名称为ars:type=InvokeMonitor；同名监控器已注册时不再注册
+	 */
+	public synchronized void register() {
+		if (this.objectName != null) {
+			return;
+		}
+		try {
+			ObjectName objectName = new ObjectName(OBJECT_NAME);
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(objectName)) {
+				logger.warn("Invoke monitor is already registered, this monitor is not exposed: " + OBJECT_NAME);
+				return;
+			}
+			server.registerMBean(this, objectName);
+			this.objectName = objectName;
+		} catch (Exception e) {
+			logger.warn("Invoke monitor register failed: " + OBJECT_NAME, e);
+		}
+	}
+
+	/**
+	 * 从JMX平台服务中注销监控器
+	 */
+	public synchronized void unregister() {
+		if (this.objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+			} catch (Exception e) {
+				logger.warn("Invoke monitor unregister failed: " + this.objectName, e);
+			} finally {
+				this.objectName = null;
+			}
+		}
+	}
+
+	/**
+	 * 资源调用指标
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	static class Metric {
+		public final AtomicLong hits = new AtomicLong(); // 缓存命中次数
+		public final AtomicLong misses = new AtomicLong(); // 缓存未命中次数
+		public final AtomicLong errors = new AtomicLong(); // 调用失败次数
+		public final Histogram latency = new Histogram(); // 调用耗时分布（毫秒）
+		public final ConcurrentMap<String, AtomicLong> exceptions = new ConcurrentHashMap<String, AtomicLong>(0); // 异常类型/次数映射
+
+	}
+
+	/**
+	 * 资源调用统计信息
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	public static class Statistic {
+		private String uri; // 资源地址
+		private long count; // 调用次数
+		private long errors; // 调用失败次数
+		private long hits; // 缓存命中次数
+		private long misses; // 缓存未命中次数
+		private double throughput; // 吞吐量（次/秒）
+		private double mean; // 平均耗时（毫秒）
+		private long p50; // 50%调用耗时（毫秒）
+		private long p90; // 90%调用耗时（毫秒）
+		private long p99; // 99%调用耗时（毫秒）
+		private long max; // 最大耗时（毫秒）
+		private Map<String, Long> exceptions; // 异常类型/次数映射
+
+		public String getUri() {
+			return uri;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getErrors() {
+			return errors;
+		}
+
+		public long getHits() {
+			return hits;
+		}
+
+		public long getMisses() {
+			return misses;
+		}
+
+		public double getThroughput() {
+			return throughput;
+		}
+
+		public double getMean() {
+			return mean;
+		}
+
+		public long getP50() {
+			return p50;
+		}
+
+		public long getP90() {
+			return p90;
+		}
+
+		public long getP99() {
+			return p99;
+		}
+
+		public long getMax() {
+			return max;
+		}
+
+		public Map<String, Long> getExceptions() {
+			return exceptions;
+		}
+
+	}
+
+	public String getPattern() {
+		return pattern;
+	}
+
+	public void setPattern(String pattern) {
+		this.pattern = pattern;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Illegal capacity:" + capacity);
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * 判断请求资源是否为已注册接口
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @return true/false
+	 */
+	protected boolean isRegistered(Requester requester) {
+		Channel channel = requester.getChannel();
+		Context context = channel == null ? null : channel.getContext();
+		Router router = context == null ? null : context.getRouter();
+		return router != null && router.isRegistered(requester.getUri());
+	}
+
+	@Override
+	public void onInvokeEvent(InvokeCompleteEvent event) {
+		Requester requester = event.getSource();
+		String uri = requester.getUri();
+		Metric metric = this.metrics.get(uri);
+		if (metric == null) {
+			if (!this.isRegistered(requester) && this.metrics.size() >= this.capacity) {
+				return;
+			}
+			metric = this.pattern == null || Strings.matches(uri, this.pattern) ? new Metric() : IGNORED;
+			Metric exists = this.metrics.putIfAbsent(uri, metric);
+			if (exists != null) {
+				metric = exists;
+			}
+		}
+		if (metric == IGNORED) {
+			return;
+		}
+		metric.latency.record(event.getTimestamp().getTime() - requester.getCreated().getTime());
+		if (event.isFailed()) {
+			metric.errors.incrementAndGet();
+			String type = event.getValue().getClass().getName();
+			AtomicLong count = metric.exceptions.get(type);
+			if (count == null) {
+				AtomicLong exists = metric.exceptions.putIfAbsent(type, count = new AtomicLong());
+				if (exists != null) {
+					count = exists;
+				}
+			}
+			count.incrementAndGet();
+		}
+		Boolean cached = event.getCached();
+		if (cached != null) {
+			(cached ? metric.hits : metric.misses).incrementAndGet();
+		}
+	}
+
+	@Api("statistics")
+	@Override
+	public List<Statistic> getStatistics() {
+		double seconds = Math.max(System.currentTimeMillis() - this.since, 1) / 1000d;
+		List<Statistic> statistics = new ArrayList<Statistic>(this.metrics.size());
+		for (Entry<String, Metric> entry : this.metrics.entrySet()) {
+			Metric metric = entry.getValue();
+			if (metric == IGNORED) {
+				continue;
+			}
+			Statistic statistic = new Statistic();
+			statistic.uri = entry.getKey();
+			statistic.count = metric.latency.getCount();
+			statistic.errors = metric.errors.get();
+			statistic.hits = metric.hits.get();
+			statistic.misses = metric.misses.get();
+			statistic.throughput = statistic.count / seconds;
+			statistic.mean = metric.latency.getMean();
+			statistic.p50 = metric.latency.getPercentile(50);
+			statistic.p90 = metric.latency.getPercentile(90);
+			statistic.p99 = metric.latency.getPercentile(99);
+			statistic.max = metric.latency.getMax();
+			statistic.exceptions = new HashMap<String, Long>(metric.exceptions.size());
+			for (Entry<String, AtomicLong> exception : metric.exceptions.entrySet()) {
+				statistic.exceptions.put(exception.getKey(), exception.getValue().get());
+			}
+			statistics.add(statistic);
+		}
+		Collections.sort(statistics, new Comparator<Statistic>() {
+
+			@Override
+			public int compare(Statistic o1, Statistic o2) {
+				return o1.count < o2.count ? 1 : o1.count == o2.count ? o1.uri.compareTo(o2.uri) : -1;
+			}
+
+		});
+		return statistics;
+	}
+
+	@Override
+	public void reset() {
+		this.metrics.clear();
+		this.since = System.currentTimeMillis();
+	}
+
+}
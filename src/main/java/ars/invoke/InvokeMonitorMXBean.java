@@ -0,0 +1,26 @@
+package ars.invoke;
+
+import java.util.List;
+
+import ars.invoke.InvokeMonitor.Statistic;
+
+/**
+ * 请求调用监控接口
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public interface InvokeMonitorMXBean {
+	/**
+	 * 获取各资源调用统计信息（按调用次数降序排列）
+	 * 
+	 * @return 调用统计信息列表
+	 */
+	public List<Statistic> getStatistics();
+
+	/**
+	 * 清空调用统计信息
+	 */
+	public void reset();
+
+}
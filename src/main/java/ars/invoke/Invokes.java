@@ -1,6 +1,11 @@
 package ars.invoke;
 
+import java.util.Map;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Collection;
+import java.lang.reflect.Array;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
@@ -89,24 +94,146 @@ public final class Invokes {
 	 * @return 日志信息
 	 */
 	public static String getLog(Requester requester, Date timestamp, Object value) {
+		return appendLog(new StringBuilder(), requester, timestamp, value, 0).toString();
+	}
+
+	/**
+	 * 追加请求日志信息
+	 * 
+	 * @param buffer
+	 *            日志缓冲区
+	 * @param requester
+	 *            请求对象
+	 * @param timestamp
+	 *            时间戳
+	 * @param value
+	 *            请求结果值
+	 * @param limit
+	 *            请求参数及结果输出的最大长度（超出部分截断），0表示不限制
+	 * @return 日志缓冲区
+	 */
+	public static StringBuilder appendLog(StringBuilder buffer, Requester requester, Date timestamp, Object value,
+			int limit) {
+		if (buffer == null) {
+			throw new IllegalArgumentException("Illegal buffer:" + buffer);
+		}
 		if (requester == null) {
 			throw new IllegalArgumentException("Illegal requester:" + requester);
 		}
 		if (timestamp == null) {
 			throw new IllegalArgumentException("Illegal timestamp:" + timestamp);
 		}
-		StringBuilder info = new StringBuilder().append('\n').append(Dates.format(requester.getCreated(), true))
-				.append(" [").append(requester.getHost()).append(']');
+		buffer.append('\n').append(Dates.format(requester.getCreated(), true)).append(" [")
+				.append(requester.getHost()).append(']');
 		if (requester.getUser() != null) {
-			info.append(" [").append(requester.getUser()).append(']');
+			buffer.append(" [").append(requester.getUser()).append(']');
 		}
-		info.append(" [").append(requester.getUri()).append("] [")
-				.append(Dates.getUnitTime(timestamp.getTime() - requester.getCreated().getTime())).append("]\n")
-				.append(requester.getParameters());
+		buffer.append(" [").append(requester.getUri()).append("] [")
+				.append(Dates.getUnitTime(timestamp.getTime() - requester.getCreated().getTime())).append("]\n");
+		int start = buffer.length();
+		truncate(append(buffer, requester.getParameters(), start, limit), start, limit);
 		if (!(value instanceof Throwable)) {
-			info.append('\n').append(value);
+			start = buffer.append('\n').length();
+			truncate(append(buffer, value, start, limit), start, limit);
+		}
+		return buffer.append('\n');
+	}
+
+	/**
+	 * 追加对象的字符串形式，限制最大长度时映射、集合及数组逐个元素追加，字符序列按剩余长度追加，超出最大长度后停止追加，避免生成完整的字符串
+	 * 
+	 * @param buffer
+	 *            缓冲区
+	 * @param value
+	 *            对象
+	 * @param start
+	 *            内容开始位置
+	 * @param limit
+	 *            最大长度，0表示不限制
+	 * @return 缓冲区
+	 */
+	private static StringBuilder append(StringBuilder buffer, Object value, int start, int limit) {
+		if (limit < 1) {
+			return buffer.append(value);
+		}
+		append(buffer, value, start + limit + 1);
+		return buffer;
+	}
+
+	/**
+	 * 追加对象的字符串形式，格式与映射、集合的toString保持一致，缓冲区长度达到结束位置后停止追加
+	 * 
+	 * @param buffer
+	 *            缓冲区
+	 * @param value
+	 *            对象
+	 * @param end
+	 *            结束位置
+	 * @return 是否未达到结束位置
+	 */
+	private static boolean append(StringBuilder buffer, Object value, int end) {
+		if (buffer.length() >= end) {
+			return false;
+		} else if (value instanceof Map) {
+			buffer.append('{');
+			Iterator<? extends Entry<?, ?>> iterator = ((Map<?, ?>) value).entrySet().iterator();
+			while (iterator.hasNext()) {
+				Entry<?, ?> entry = iterator.next();
+				if (!append(buffer, entry.getKey() == value ? "(this Map)" : entry.getKey(), end)
+						|| !append(buffer.append('='), entry.getValue() == value ? "(this Map)" : entry.getValue(), end)) {
+					return false;
+				}
+				if (iterator.hasNext()) {
+					buffer.append(", ");
+				}
+			}
+			buffer.append('}');
+		} else if (value instanceof Collection) {
+			buffer.append('[');
+			Iterator<?> iterator = ((Collection<?>) value).iterator();
+			while (iterator.hasNext()) {
+				Object element = iterator.next();
+				if (!append(buffer, element == value ? "(this Collection)" : element, end)) {
+					return false;
+				}
+				if (iterator.hasNext()) {
+					buffer.append(", ");
+				}
+			}
+			buffer.append(']');
+		} else if (value != null && value.getClass().isArray()) {
+			buffer.append('[');
+			for (int i = 0, length = Array.getLength(value); i < length; i++) {
+				if (i > 0) {
+					buffer.append(", ");
+				}
+				if (!append(buffer, Array.get(value, i), end)) {
+					return false;
+				}
+			}
+			buffer.append(']');
+		} else {
+			CharSequence sequence = value instanceof CharSequence ? (CharSequence) value : String.valueOf(value);
+			buffer.append(sequence, 0, Math.min(sequence.length(), end - buffer.length()));
+		}
+		return buffer.length() < end;
+	}
+
+	/**
+	 * 截断缓冲区中超出最大长度的内容
+	 * 
+	 * @param buffer
+	 *            缓冲区
+	 * @param start
+	 *            内容开始位置
+	 * @param limit
+	 *            最大长度，0表示不限制
+	 */
+	private static void truncate(StringBuilder buffer, int start, int limit) {
+		if (limit > 0 && buffer.length() - start > limit) {
+			buffer.setLength(start + limit);
+			buffer.append("...");
 		}
-		return info.append('\n').toString();
 	}
 
 	/**
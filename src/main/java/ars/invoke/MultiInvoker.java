@@ -1,8 +1,16 @@
 package ars.invoke;
 
-import java.util.List;
+import java.util.Map;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
 
 import ars.util.Servers;
 import ars.invoke.Invoker;
@@ -12,6 +20,8 @@ import ars.invoke.request.Requester;
 /**
  * 多资源调用实现
  * 
+ * 所有目标资源并行调用（受最大并发调用数限制），在超时时间内汇总结果；默认任一资源调用失败或超时即抛出异常，允许部分结果时失败或超时的资源结果为对应异常对象
+ * 
  * @author yongqiangwu
  *
  */
@@ -19,26 +29,92 @@ public class MultiInvoker implements Invoker {
 
 	@Override
 	public Object execute(final Requester requester, Resource resource) throws Exception {
-		String[] uris = ((MultiResource) resource).getResources();
-		List<Object> results = new ArrayList<Object>(uris.length);
-		for (final String uri : uris) {
+		MultiResource multi = (MultiResource) resource;
+		String[] uris = multi.getResources();
+		for (String uri : uris) {
 			if (uri.equals(requester.getUri())) {
 				throw new RuntimeException("Resource address cycle reference:" + uri);
 			}
-			Object result = Servers.submit(new Callable<Object>() {
-
-				@Override
-				public Object call() throws Exception {
-					return requester.execute(uri);
+		}
+		Object[] results = new Object[uris.length];
+		boolean[] completes = new boolean[uris.length];
+		Map<Future<Object>, Integer> futures = new HashMap<Future<Object>, Integer>(uris.length);
+		CompletionService<Object> service = new ExecutorCompletionService<Object>(
+				Servers.getExecutor(Servers.EXECUTOR_FANOUT));
+		int limit = multi.getConcurrency() > 0 && multi.getConcurrency() < uris.length ? multi.getConcurrency()
+				: uris.length;
+		long deadline = multi.getTimeout() > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(multi.getTimeout())
+				: 0;
+		int submitted = 0, completed = 0;
+		try {
+			while (submitted < limit) {
+				futures.put(this.submit(service, requester, uris[submitted]), submitted++);
+			}
+			while (completed < uris.length) {
+				Future<Object> future;
+				if (deadline == 0) {
+					future = service.take();
+				} else {
+					long remain = deadline - System.nanoTime();
+					if (remain <= 0 || (future = service.poll(remain, TimeUnit.NANOSECONDS)) == null) {
+						break;
+					}
 				}
-
-			}).get();
-			if (result instanceof Exception) {
-				throw (Exception) result;
+				int index = futures.remove(future);
+				Object result;
+				try {
+					result = future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					result = cause instanceof Exception ? (Exception) cause : new Exception(cause);
+				}
+				if (result instanceof Exception && !multi.isPartial()) {
+					throw (Exception) result;
+				}
+				results[index] = result;
+				completes[index] = true;
+				completed++;
+				if (submitted < uris.length) {
+					futures.put(this.submit(service, requester, uris[submitted]), submitted++);
+				}
+			}
+		} finally {
+			for (Future<Object> future : futures.keySet()) {
+				future.cancel(true);
 			}
-			results.add(result);
 		}
-		return results;
+		for (int i = 0; i < uris.length; i++) {
+			if (!completes[i]) {
+				TimeoutException exception = new TimeoutException("Resource invoke timeout:" + uris[i]);
+				if (!multi.isPartial()) {
+					throw exception;
+				}
+				results[i] = exception;
+			}
+		}
+		return new ArrayList<Object>(Arrays.asList(results));
+	}
+
+	/**
+	 * 提交资源调用任务
+	 * 
+	 * @param service
+	 *            任务完成服务
+	 * @param requester
+	 *            请求对象
+	 * @param uri
+	 *            资源地址
+	 * @return 任务结果
+	 */
+	protected Future<Object> submit(CompletionService<Object> service, final Requester requester, final String uri) {
+		return service.submit(new Callable<Object>() {
+
+			@Override
+			public Object call() throws Exception {
+				return requester.execute(uri);
+			}
+
+		});
 	}
 
 }
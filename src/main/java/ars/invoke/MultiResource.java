@@ -13,6 +13,9 @@ public class MultiResource implements Resource {
 	private static final long serialVersionUID = 1L;
 
 	private String[] resources; // 目标资源地址数组
+	private int timeout; // 调用超时时间（毫秒），0表示不限制
+	private int concurrency; // 最大并发调用数，0表示不限制
+	private boolean partial; // 是否允许返回部分结果（失败或超时的资源结果为对应异常对象）
 
 	public MultiResource(String... resources) {
 		if (resources == null || resources.length == 0) {
@@ -25,4 +28,34 @@ public class MultiResource implements Resource {
 		return resources;
 	}
 
+	public int getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(int timeout) {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Illegal timeout:" + timeout);
+		}
+		this.timeout = timeout;
+	}
+
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	public void setConcurrency(int concurrency) {
+		if (concurrency < 0) {
+			throw new IllegalArgumentException("Illegal concurrency:" + concurrency);
+		}
+		this.concurrency = concurrency;
+	}
+
+	public boolean isPartial() {
+		return partial;
+	}
+
+	public void setPartial(boolean partial) {
+		this.partial = partial;
+	}
+
 }
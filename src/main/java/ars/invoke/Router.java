@@ -5,6 +5,7 @@ import java.util.List;
 
 import ars.util.Cache;
 import ars.invoke.Invoker;
+import ars.invoke.InvokeCallback;
 import ars.invoke.Resource;
 import ars.invoke.Cacheable;
 import ars.invoke.request.Requester;
@@ -48,6 +49,25 @@ public interface Router {
 	 */
 	public Object routing(Requester requester);
 
+	/**
+	 * 判断请求是否可以异步路由（资源调用器支持异步调用且请求结果不使用缓存）
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @return true/false
+	 */
+	public boolean isAsync(Requester requester);
+
+	/**
+	 * 异步请求路由，资源调用器支持异步调用时不阻塞当前线程，否则在当前线程中同步路由后通知回调对象
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @param callback
+	 *            调用结果回调对象
+	 */
+	public void routingAsync(Requester requester, InvokeCallback callback);
+
 	/**
 	 * 资源注册
 	 * 
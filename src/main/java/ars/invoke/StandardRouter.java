@@ -5,27 +5,43 @@ import java.util.Set;
 import java.util.List;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.BitSet;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.Map.Entry;
-import java.util.LinkedList;
 import java.util.Collections;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import ars.util.Cache;
+import ars.util.Servers;
 import ars.util.Strings;
-import ars.util.SimpleCache;
+import ars.util.ConcurrentCache;
 import ars.invoke.Router;
 import ars.invoke.Invoker;
 import ars.invoke.Resource;
 import ars.invoke.Cacheable;
+import ars.invoke.AsyncInvoker;
+import ars.invoke.InvokeCallback;
 import ars.invoke.request.Requester;
+import ars.invoke.request.StandardRequester;
 import ars.invoke.event.InvokeEvent;
 import ars.invoke.event.InvokeListener;
 import ars.invoke.event.InvokeAfterEvent;
 import ars.invoke.event.InvokeErrorEvent;
 import ars.invoke.event.InvokeBeforeEvent;
 import ars.invoke.event.InvokeCompleteEvent;
+import ars.invoke.event.AsyncInvokeListener;
 import ars.invoke.request.AccessDeniedException;
 
 /**
@@ -35,18 +51,133 @@ import ars.invoke.request.AccessDeniedException;
  * 
  */
 public class StandardRouter implements Router {
+	/**
+	 * 默认路由查找结果缓存数量
+	 */
+	public static final int DEFAULT_ROUTE_CACHE_SIZE = 10000;
+
+	/**
+	 * 资源未定义标记
+	 */
+	private static final Object UNDEFINED = new Object();
+
+	private static final Logger logger = LoggerFactory.getLogger(StandardRouter.class);
+
 	private Cache cache; // 缓存处理接口
 	private List<String> apis; // 资源接口集合
 	private Cacheable[] cacheables; // 可缓存资源数组
 	private Map<String, Cacheable> caches; // 缓存目标资源地址/缓存规则映射
 	private Map<String, Set<String>> refreshs; // 触发缓存刷新资源地址映射
-	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private Map<String, AtomicLong> versions; // 缓存目标资源地址/缓存版本映射
+	private volatile RouteTable routes; // 请求路由表
+	private int routeCacheSize = DEFAULT_ROUTE_CACHE_SIZE; // 路由查找结果缓存数量
+	private final ConcurrentMap<String, FutureTask<Object>> loadings = new ConcurrentHashMap<String, FutureTask<Object>>(); // 缓存标识/正在加载的缓存任务映射
 	private final Map<String, String> forwards = new HashMap<String, String>(0); // 请求转发资源映射
 	private final Map<String, InvokeWrapper> wrappers = new HashMap<String, InvokeWrapper>(0); // 请求调用包装器资源映射
-	private final List<InvokeListener<?>> invokeBeforeListeners = new LinkedList<InvokeListener<?>>(); // 请求调用之前监听器集合
-	private final List<InvokeListener<?>> invokeAfterListeners = new LinkedList<InvokeListener<?>>(); // 请求调用成功监听器集合
-	private final List<InvokeListener<?>> invokeErrorListeners = new LinkedList<InvokeListener<?>>(); // 请求调用失败监听器集合
-	private final List<InvokeListener<?>> invokeCompleteListeners = new LinkedList<InvokeListener<?>>(); // 请求调用完成监听器集合
+	private volatile ListenerGroup invokeBeforeListeners = ListenerGroup.EMPTY; // 请求调用之前监听器组
+	private volatile ListenerGroup invokeAfterListeners = ListenerGroup.EMPTY; // 请求调用成功监听器组
+	private volatile ListenerGroup invokeErrorListeners = ListenerGroup.EMPTY; // 请求调用失败监听器组
+	private volatile ListenerGroup invokeCompleteListeners = ListenerGroup.EMPTY; // 请求调用完成监听器组
+
+	/**
+	 * 缓存空值标记，用于区分缓存不存在与缓存结果为null
+	 * 
+	 * @author yongqiangwu
+	 *
+	 */
+	static final class NullValue implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * 空值标记实例
+		 */
+		public static final NullValue INSTANCE = new NullValue();
+
+		private NullValue() {
+
+		}
+
+		private Object readResolve() {
+			return INSTANCE;
+		}
+
+	}
+
+	/**
+	 * 请求调用监听器组
+	 * 
+	 * 监听器按同步/异步分别保存在不可变数组中，更新时整体替换（写时复制），事件分发过程无需加锁及迭代器分配
+	 * 
+	 * @author yongqiangwu
+	 *
+	 */
+	static class ListenerGroup {
+		/**
+		 * 空监听器组
+		 */
+		public static final ListenerGroup EMPTY = new ListenerGroup(new InvokeListener<?>[0]);
+
+		/**
+		 * 事件线程池积压时丢弃的异步事件数量
+		 */
+		public static final AtomicLong DROPPED = new AtomicLong();
+
+		public final boolean empty; // 是否为空
+		private final InvokeListener<?>[] syncs; // 同步监听器数组
+		private final InvokeListener<?>[] asyncs; // 异步监听器数组
+
+		public ListenerGroup(InvokeListener<?>[] listeners) {
+			List<InvokeListener<?>> syncs = new ArrayList<InvokeListener<?>>(listeners.length);
+			List<InvokeListener<?>> asyncs = new ArrayList<InvokeListener<?>>(0);
+			for (InvokeListener<?> listener : listeners) {
+				if (listener instanceof AsyncInvokeListener) {
+					asyncs.add(listener);
+				} else if (listener != null) {
+					syncs.add(listener);
+				}
+			}
+			this.syncs = syncs.toArray(new InvokeListener<?>[syncs.size()]);
+			this.asyncs = asyncs.toArray(new InvokeListener<?>[asyncs.size()]);
+			this.empty = this.syncs.length == 0 && this.asyncs.length == 0;
+		}
+
+		/**
+		 * 分发事件，同步监听器在当前线程执行，异步监听器提交至事件线程池执行；事件线程池积压时丢弃异步事件，统计丢弃数量并记录警告日志（首次及此后每1000次）
+		 * 
+		 * @param event
+		 *            事件对象
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public void fire(final InvokeEvent event) {
+			for (InvokeListener listener : this.syncs) {
+				listener.onInvokeEvent(event);
+			}
+			if (this.asyncs.length > 0) {
+				try {
+					Servers.execute(Servers.EXECUTOR_EVENT, new Runnable() {
+
+						@Override
+						public void run() {
+							for (InvokeListener listener : asyncs) {
+								try {
+									listener.onInvokeEvent(event);
+								} catch (Throwable e) {
+									logger.error("Asynchronous invoke listener failed: " + listener, e);
+								}
+							}
+						}
+
+					});
+				} catch (RejectedExecutionException e) {
+					long dropped = DROPPED.incrementAndGet();
+					if (dropped % 1000 == 1) {
+						logger.warn("Asynchronous invoke event executor is saturated, dropped events: " + dropped);
+					}
+				}
+			}
+		}
+
+	}
 
 	/**
 	 * 请求调用包装类
@@ -84,19 +215,227 @@ public class StandardRouter implements Router {
 
 	}
 
+	/**
+	 * 资源地址后缀树节点（按字符逆序构建）
+	 * 
+	 * @author yongqiangwu
+	 *
+	 */
+	class SuffixNode {
+		public String api; // 接口地址
+		public InvokeWrapper wrapper; // 请求调用包装对象
+		public final Map<Character, SuffixNode> children = new HashMap<Character, SuffixNode>(2);
+
+	}
+
+	/**
+	 * 请求路由表
+	 * 
+	 * 构建完成后只读，由精确匹配映射、非通配接口地址逆序后缀树、按路径段索引的通配规则数组及有界查找结果缓存组成
+	 * 
+	 * 通配规则保持Strings.matches的字符级匹配语义，每个通配规则按其必须完整出现在资源地址中的最长路径段建立索引，查找时仅对资源地址各路径段命中的通配规则（及无法建立索引的通配规则）按规则顺序逐一匹配；成功与失败的查找结果分别缓存，缓存已满时逐个淘汰，大量无法匹配的资源地址不会淘汰成功的查找结果
+	 * 
+	 * @author yongqiangwu
+	 *
+	 */
+	class RouteTable {
+		private final int capacity; // 查找结果缓存数量
+		private final String[] patterns; // 通配规则数组
+		private final InvokeWrapper[] targets; // 通配规则对应请求调用包装对象数组
+		private final SuffixNode suffixes = new SuffixNode(); // 接口地址逆序后缀树
+		private final Map<String, InvokeWrapper> exacts; // 精确匹配映射
+		private final BitSet unindexed = new BitSet(); // 无法建立索引的通配规则下标集合
+		private final Map<String, int[]> segments = new HashMap<String, int[]>(); // 路径段/通配规则下标数组映射
+		private final ConcurrentMap<String, InvokeWrapper> lookups = new ConcurrentHashMap<String, InvokeWrapper>(); // 成功查找结果缓存
+		private final ConcurrentMap<String, Object> misses = new ConcurrentHashMap<String, Object>(); // 失败查找结果缓存
+
+		public RouteTable(Map<String, InvokeWrapper> wrappers, int capacity) {
+			List<String> patterns = new ArrayList<String>();
+			this.exacts = new HashMap<String, InvokeWrapper>(wrappers);
+			for (Entry<String, InvokeWrapper> entry : wrappers.entrySet()) {
+				String api = entry.getKey();
+				if (isPattern(api)) {
+					patterns.add(api);
+					continue;
+				}
+				SuffixNode node = this.suffixes;
+				for (int i = api.length() - 1; i > -1; i--) {
+					Character c = api.charAt(i);
+					SuffixNode child = node.children.get(c);
+					if (child == null) {
+						child = new SuffixNode();
+						node.children.put(c, child);
+					}
+					node = child;
+				}
+				node.api = api;
+				node.wrapper = entry.getValue();
+			}
+			Collections.sort(patterns);
+			this.capacity = capacity;
+			this.patterns = patterns.toArray(Strings.EMPTY_ARRAY);
+			this.targets = new InvokeWrapper[this.patterns.length];
+			for (int i = 0; i < this.patterns.length; i++) {
+				this.targets[i] = wrappers.get(this.patterns[i]);
+				String segment = this.getIndexSegment(this.patterns[i]);
+				if (segment == null) {
+					this.unindexed.set(i);
+				} else {
+					int[] indexes = this.segments.get(segment);
+					if (indexes == null) {
+						indexes = new int[] { i };
+					} else {
+						indexes = Arrays.copyOf(indexes, indexes.length + 1);
+						indexes[indexes.length - 1] = i;
+					}
+					this.segments.put(segment, indexes);
+				}
+			}
+		}
+
+		/**
+		 * 获取通配规则的索引路径段，即匹配成功时必须作为完整路径段出现在资源地址中的最长路径段
+		 * 
+		 * 通配规则中左右两侧均以“/”分隔的片段必然是资源地址中的完整路径段；规则不以“*”结尾时最后一个片段位于资源地址末尾，左侧以“/”分隔即可；包含“,”或以“-”开头的规则无法建立索引
+		 * 
+		 * @param pattern
+		 *            通配规则
+		 * @return 索引路径段（无法建立索引时返回null）
+		 */
+		private String getIndexSegment(String pattern) {
+			if (pattern.isEmpty() || pattern.charAt(0) == '-' || pattern.indexOf(',') > -1) {
+				return null;
+			}
+			String segment = null;
+			boolean anchored = pattern.charAt(pattern.length() - 1) != '*';
+			String[] signs = pattern.split("\\*", -1);
+			for (int i = 0; i < signs.length; i++) {
+				String[] tokens = signs[i].split("/", -1);
+				for (int n = 1; n < tokens.length; n++) {
+					if (tokens[n].isEmpty() || (segment != null && tokens[n].length() <= segment.length())) {
+						continue;
+					}
+					if (n < tokens.length - 1 || (anchored && i == signs.length - 1)) {
+						segment = tokens[n];
+					}
+				}
+			}
+			return segment;
+		}
+
+		/**
+		 * 判断接口地址是否为通配规则
+		 * 
+		 * @param api
+		 *            接口地址
+		 * @return true/false
+		 */
+		private boolean isPattern(String api) {
+			return api.isEmpty() || api.charAt(0) == '-' || api.indexOf('*') > -1 || api.indexOf(',') > -1;
+		}
+
+		/**
+		 * 匹配请求调用包装对象
+		 * 
+		 * 匹配规则与Strings.matches保持一致：非通配接口地址需在资源地址中首次出现的位置位于末尾，优先匹配最长的接口地址
+		 * 
+		 * @param uri
+		 *            资源地址
+		 * @return 请求调用包装对象
+		 */
+		private InvokeWrapper match(String uri) {
+			InvokeWrapper wrapper = null;
+			SuffixNode node = this.suffixes;
+			for (int i = uri.length() - 1; i > -1; i--) {
+				if ((node = node.children.get(uri.charAt(i))) == null) {
+					break;
+				}
+				if (node.wrapper != null && uri.indexOf(node.api) == i) {
+					wrapper = node.wrapper;
+				}
+			}
+			if (wrapper == null && this.patterns.length > 0) {
+				BitSet candidates = (BitSet) this.unindexed.clone();
+				if (!this.segments.isEmpty()) {
+					for (String segment : Strings.split(uri, '/')) {
+						int[] indexes = this.segments.get(segment);
+						if (indexes != null) {
+							for (int index : indexes) {
+								candidates.set(index);
+							}
+						}
+					}
+				}
+				for (int i = candidates.nextSetBit(0); i > -1; i = candidates.nextSetBit(i + 1)) {
+					if (Strings.matches(uri, this.patterns[i])) {
+						return this.targets[i];
+					}
+				}
+			}
+			return wrapper;
+		}
+
+		/**
+		 * 查找请求调用包装对象
+		 * 
+		 * @param uri
+		 *            资源地址
+		 * @return 请求调用包装对象（未找到时返回null）
+		 */
+		public InvokeWrapper lookup(String uri) {
+			InvokeWrapper wrapper = this.exacts.get(uri);
+			if (wrapper != null) {
+				return wrapper;
+			}
+			if ((wrapper = this.lookups.get(uri)) != null || this.misses.containsKey(uri)) {
+				return wrapper;
+			}
+			wrapper = this.match(uri);
+			if (this.capacity > 0) {
+				if (wrapper == null) {
+					this.cache(this.misses, uri, UNDEFINED);
+				} else {
+					this.cache(this.lookups, uri, wrapper);
+				}
+			}
+			return wrapper;
+		}
+
+		/**
+		 * 缓存查找结果，缓存已满时淘汰任意一个已缓存的结果
+		 * 
+		 * @param <T>
+		 *            查找结果类型
+		 * @param cache
+		 *            查找结果缓存
+		 * @param uri
+		 *            资源地址
+		 * @param value
+		 *            查找结果
+		 */
+		private <T> void cache(ConcurrentMap<String, T> cache, String uri, T value) {
+			if (cache.size() >= this.capacity) {
+				Iterator<String> iterator = cache.keySet().iterator();
+				if (iterator.hasNext()) {
+					iterator.next();
+					iterator.remove();
+				}
+			}
+			cache.put(uri, value);
+		}
+
+	}
+
 	/**
 	 * 请求调用之前执行
 	 * 
 	 * @param requester
 	 *            请求对象
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	protected void beforeInvoke(Requester requester) {
-		if (!this.invokeBeforeListeners.isEmpty()) {
-			InvokeEvent event = new InvokeBeforeEvent(requester);
-			for (InvokeListener listener : this.invokeBeforeListeners) {
-				listener.onInvokeEvent(event);
-			}
+		ListenerGroup listeners = this.invokeBeforeListeners;
+		if (!listeners.empty) {
+			listeners.fire(new InvokeBeforeEvent(requester));
 		}
 	}
 
@@ -108,13 +447,10 @@ public class StandardRouter implements Router {
 	 * @param value
 	 *            请求结果
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	protected void afterInvoke(Requester requester, Object value) {
-		if (!this.invokeAfterListeners.isEmpty()) {
-			InvokeEvent event = new InvokeAfterEvent(requester, value);
-			for (InvokeListener listener : this.invokeAfterListeners) {
-				listener.onInvokeEvent(event);
-			}
+		ListenerGroup listeners = this.invokeAfterListeners;
+		if (!listeners.empty) {
+			listeners.fire(new InvokeAfterEvent(requester, value));
 		}
 	}
 
@@ -126,13 +462,10 @@ public class StandardRouter implements Router {
 	 * @param e
 	 *            调用异常
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	protected void errorInvoke(Requester requester, Throwable e) {
-		if (!this.invokeErrorListeners.isEmpty()) {
-			InvokeEvent event = new InvokeErrorEvent(requester, e);
-			for (InvokeListener listener : this.invokeErrorListeners) {
-				listener.onInvokeEvent(event);
-			}
+		ListenerGroup listeners = this.invokeErrorListeners;
+		if (!listeners.empty) {
+			listeners.fire(new InvokeErrorEvent(requester, e));
 		}
 	}
 
@@ -144,12 +477,39 @@ public class StandardRouter implements Router {
 	 * @param value
 	 *            调用结果
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	protected void completeInvoke(Requester requester, Object value) {
-		if (!this.invokeCompleteListeners.isEmpty()) {
-			InvokeEvent event = new InvokeCompleteEvent(requester, value);
-			for (InvokeListener listener : this.invokeCompleteListeners) {
-				listener.onInvokeEvent(event);
+		this.completeInvoke(requester, value, null);
+	}
+
+	/**
+	 * 请求调用完成执行
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @param value
+	 *            调用结果
+	 * @param cached
+	 *            是否命中缓存（非缓存资源为null）
+	 */
+	protected void completeInvoke(Requester requester, Object value, Boolean cached) {
+		ListenerGroup listeners = this.invokeCompleteListeners;
+		if (!listeners.empty) {
+			listeners.fire(new InvokeCompleteEvent(requester, value, cached));
+		}
+	}
+
+	/**
+	 * 提交请求会话中延迟写入的属性
+	 * 
+	 * @param requester
+	 *            请求对象
+	 */
+	protected void flushSession(Requester requester) {
+		if (requester instanceof StandardRequester) {
+			try {
+				((StandardRequester) requester).flushSession();
+			} catch (Exception e) {
+				logger.error("Session flush failed: " + requester.getClient(), e);
 			}
 		}
 	}
@@ -169,21 +529,18 @@ public class StandardRouter implements Router {
 				uri = forward;
 			}
 		}
-		InvokeWrapper wrapper = this.wrappers.get(uri);
-		if (wrapper == null) {
-			synchronized (uri.intern()) {
-				if ((wrapper = this.wrappers.get(uri)) == null) {
-					for (Entry<String, InvokeWrapper> entry : this.wrappers.entrySet()) {
-						if (Strings.matches(uri, entry.getKey())) {
-							wrapper = entry.getValue();
-							this.wrappers.put(uri, wrapper);
-							return wrapper;
-						}
-					}
-					throw new AccessDeniedException("error.resource.undefined");
+		RouteTable routes = this.routes;
+		if (routes == null) {
+			synchronized (this) {
+				if ((routes = this.routes) == null) {
+					this.routes = routes = new RouteTable(this.wrappers, this.routeCacheSize);
 				}
 			}
 		}
+		InvokeWrapper wrapper = routes.lookup(uri);
+		if (wrapper == null) {
+			throw new AccessDeniedException("error.resource.undefined");
+		}
 		return wrapper;
 	}
 
@@ -200,12 +557,104 @@ public class StandardRouter implements Router {
 		return this.lookupInvokeWrapper(requester).execute(requester);
 	}
 
+	/**
+	 * 加载可缓存资源数据，相同缓存标识的并发请求共享同一次资源访问，不同缓存标识之间互不阻塞
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @param cacheable
+	 *            缓存规则
+	 * @param key
+	 *            缓存标识
+	 * @return 请求结果
+	 * @throws Exception
+	 *             操作异常
+	 */
+	protected Object load(final Requester requester, final Cacheable cacheable, final String key) throws Exception {
+		FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>() {
+
+			@Override
+			public Object call() throws Exception {
+				Object value = cache.get(key);
+				if (value != null) {
+					return value == NullValue.INSTANCE ? null : value;
+				}
+				AtomicLong version = versions.get(requester.getUri());
+				long current = version == null ? 0 : version.get();
+				Object result = access(requester);
+				value = result == null ? NullValue.INSTANCE : result;
+				if (version == null) {
+					cache.set(key, value, cacheable.getTimeout());
+				} else if (version.get() == current) {
+					cache.set(key, value, cacheable.getTimeout());
+					if (version.get() != current) {
+						cache.remove(key);
+					}
+				}
+				return result;
+			}
+
+		});
+		FutureTask<Object> loading = this.loadings.putIfAbsent(key, task);
+		if (loading == null) {
+			loading = task;
+			try {
+				task.run();
+			} finally {
+				this.loadings.remove(key, task);
+			}
+		}
+		try {
+			return loading.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw new Exception(cause);
+		}
+	}
+
+	/**
+	 * 刷新资源数据缓存
+	 * 
+	 * 递增资源缓存版本，使刷新前已开始加载的结果不再写入缓存；加载结果写入缓存后会再次校验版本，若写入期间发生刷新则移除该缓存
+	 * 
+	 * @param uri
+	 *            缓存目标资源地址
+	 */
+	protected void refresh(String uri) {
+		AtomicLong version = this.versions.get(uri);
+		if (version != null) {
+			version.incrementAndGet();
+		}
+		this.cache.remove(new StringBuilder("{").append(uri).append("}*").toString());
+	}
+
+	public int getRouteCacheSize() {
+		return routeCacheSize;
+	}
+
+	public void setRouteCacheSize(int routeCacheSize) {
+		if (routeCacheSize < 0) {
+			throw new IllegalArgumentException("Illegal routeCacheSize:" + routeCacheSize);
+		}
+		this.routeCacheSize = routeCacheSize;
+	}
+
 	@Override
 	public void initialize() {
+		if (this.routes == null) {
+			synchronized (this) {
+				if (this.routes == null) {
+					this.routes = new RouteTable(this.wrappers, this.routeCacheSize);
+				}
+			}
+		}
 		if (this.cache == null) {
 			synchronized (this) {
 				if (this.cache == null) {
-					this.cache = new SimpleCache();
+					this.cache = new ConcurrentCache();
 				}
 			}
 		}
@@ -224,9 +673,11 @@ public class StandardRouter implements Router {
 					if (this.cacheables == null || this.cacheables.length == 0) {
 						this.caches = Collections.emptyMap();
 						this.refreshs = Collections.emptyMap();
+						this.versions = Collections.emptyMap();
 					} else {
 						this.caches = new HashMap<String, Cacheable>();
 						this.refreshs = new HashMap<String, Set<String>>();
+						this.versions = new HashMap<String, AtomicLong>();
 						for (int i = 0; i < this.apis.size(); i++) {
 							String api = this.apis.get(i);
 							for (Cacheable cacheable : cacheables) {
@@ -235,6 +686,7 @@ public class StandardRouter implements Router {
 								}
 								if (Strings.matches(api, cacheable.getTarget())) {
 									this.caches.put(api, cacheable);
+									this.versions.put(api, new AtomicLong());
 									break;
 								} else if (!Strings.matches(api, cacheable.getRefresh())) {
 									continue;
@@ -258,6 +710,15 @@ public class StandardRouter implements Router {
 		}
 	}
 
+	/**
+	 * 获取因事件线程池积压而丢弃的异步事件数量
+	 * 
+	 * @return 丢弃的异步事件数量
+	 */
+	public static long getDroppedEventCount() {
+		return ListenerGroup.DROPPED.get();
+	}
+
 	@Override
 	public List<String> getApis() {
 		return this.apis;
@@ -271,6 +732,7 @@ public class StandardRouter implements Router {
 	@Override
 	public Object routing(Requester requester) {
 		Object result = null;
+		Boolean cached = null;
 		try {
 			this.beforeInvoke(requester);
 			Cacheable cacheable = this.caches.get(requester.getUri());
@@ -279,49 +741,116 @@ public class StandardRouter implements Router {
 				Set<String> refresh = this.refreshs.get(requester.getUri());
 				if (refresh != null && !refresh.isEmpty()) {
 					for (String uri : refresh) {
-						this.lock.writeLock().lock();
-						try {
-							this.cache.remove(new StringBuilder("{").append(uri).append("}*").toString());
-						} finally {
-							this.lock.writeLock().unlock();
-						}
+						this.refresh(uri);
 					}
 				}
 			} else {
 				String key = cacheable.getKey(requester);
-				this.lock.readLock().lock();
-				try {
-					if (this.cache.exists(key)) {
-						result = this.cache.get(key);
-					} else {
-						this.lock.readLock().unlock();
-						this.lock.writeLock().lock();
-						try {
-							if (this.cache.exists(key)) {
-								result = this.cache.get(key);
-							} else {
-								result = this.access(requester);
-								this.cache.set(key, result, cacheable.getTimeout());
-							}
-						} finally {
-							this.lock.writeLock().unlock();
-							this.lock.readLock().lock();
-						}
-					}
-				} finally {
-					this.lock.readLock().unlock();
-				}
+				Object value = this.cache.get(key);
+				cached = value != null;
+				result = value == null ? this.load(requester, cacheable, key)
+						: value == NullValue.INSTANCE ? null : value;
 			}
 			this.afterInvoke(requester, result);
 		} catch (Throwable e) {
 			result = e;
 			this.errorInvoke(requester, e);
 		} finally {
-			this.completeInvoke(requester, result);
+			try {
+				this.completeInvoke(requester, result, cached);
+			} finally {
+				this.flushSession(requester);
+			}
 		}
 		return result;
 	}
 
+	/**
+	 * 查找支持异步调用的请求调用包装对象
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @return 请求调用包装对象（请求结果使用缓存、资源未定义或资源调用器不支持异步调用时返回null）
+	 */
+	protected InvokeWrapper lookupAsyncInvokeWrapper(Requester requester) {
+		if (this.caches.containsKey(requester.getUri())) {
+			return null;
+		}
+		InvokeWrapper wrapper;
+		try {
+			wrapper = this.lookupInvokeWrapper(requester);
+		} catch (AccessDeniedException e) {
+			return null;
+		}
+		return wrapper.invoker instanceof AsyncInvoker ? wrapper : null;
+	}
+
+	@Override
+	public boolean isAsync(Requester requester) {
+		return this.lookupAsyncInvokeWrapper(requester) != null;
+	}
+
+	@Override
+	public void routingAsync(final Requester requester, final InvokeCallback callback) {
+		if (callback == null) {
+			throw new IllegalArgumentException("Illegal callback:" + callback);
+		}
+		InvokeWrapper wrapper = this.lookupAsyncInvokeWrapper(requester);
+		if (wrapper == null) {
+			callback.complete(this.routing(requester));
+			return;
+		}
+		try {
+			this.beforeInvoke(requester);
+			((AsyncInvoker) wrapper.invoker).execute(requester, wrapper.resource, new InvokeCallback() {
+
+				@Override
+				public void complete(Object result) {
+					completeAsync(requester, result, callback);
+				}
+
+			});
+		} catch (Throwable e) {
+			this.completeAsync(requester, e, callback);
+		}
+	}
+
+	/**
+	 * 异步请求调用完成处理
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @param result
+	 *            调用结果
+	 * @param callback
+	 *            调用结果回调对象
+	 */
+	protected void completeAsync(Requester requester, Object result, InvokeCallback callback) {
+		try {
+			if (result instanceof Throwable) {
+				this.errorInvoke(requester, (Throwable) result);
+			} else {
+				Set<String> refresh = this.refreshs.get(requester.getUri());
+				if (refresh != null && !refresh.isEmpty()) {
+					for (String uri : refresh) {
+						this.refresh(uri);
+					}
+				}
+				this.afterInvoke(requester, result);
+			}
+		} catch (Throwable e) {
+			result = e;
+			this.errorInvoke(requester, e);
+		} finally {
+			try {
+				this.completeInvoke(requester, result);
+			} finally {
+				this.flushSession(requester);
+			}
+		}
+		callback.complete(result);
+	}
+
 	@Override
 	public void register(String api, Invoker invoker, Resource resource) {
 		this.register(api, invoker, resource, false);
@@ -338,7 +867,10 @@ public class StandardRouter implements Router {
 		if (!cover && this.isRegistered(api)) {
 			throw new RuntimeException("Api is already registered:" + api);
 		}
-		this.wrappers.put(api, new InvokeWrapper(invoker, resource));
+		synchronized (this) {
+			this.wrappers.put(api, new InvokeWrapper(invoker, resource));
+			this.routes = null;
+		}
 	}
 
 	@Override
@@ -362,28 +894,20 @@ public class StandardRouter implements Router {
 	@Override
 	public <E extends InvokeEvent> void setListeners(Class<E> type, InvokeListener<E>... listeners) {
 		if (listeners.length > 0) {
-			List<InvokeListener<E>> list = Arrays.asList(listeners);
+			ListenerGroup group = new ListenerGroup(listeners);
 			if (type == InvokeBeforeEvent.class) {
-				this.invokeBeforeListeners.clear();
-				this.invokeBeforeListeners.addAll(list);
+				this.invokeBeforeListeners = group;
 			} else if (type == InvokeAfterEvent.class) {
-				this.invokeAfterListeners.clear();
-				this.invokeAfterListeners.addAll(list);
+				this.invokeAfterListeners = group;
 			} else if (type == InvokeErrorEvent.class) {
-				this.invokeErrorListeners.clear();
-				this.invokeErrorListeners.addAll(list);
+				this.invokeErrorListeners = group;
 			} else if (type == InvokeCompleteEvent.class) {
-				this.invokeCompleteListeners.clear();
-				this.invokeCompleteListeners.addAll(list);
+				this.invokeCompleteListeners = group;
 			} else {
-				this.invokeBeforeListeners.clear();
-				this.invokeAfterListeners.clear();
-				this.invokeErrorListeners.clear();
-				this.invokeCompleteListeners.clear();
-				this.invokeBeforeListeners.addAll(list);
-				this.invokeAfterListeners.addAll(list);
-				this.invokeErrorListeners.addAll(list);
-				this.invokeCompleteListeners.addAll(list);
+				this.invokeBeforeListeners = group;
+				this.invokeAfterListeners = group;
+				this.invokeErrorListeners = group;
+				this.invokeCompleteListeners = group;
 			}
 		}
 	}
@@ -4,16 +4,28 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Map.Entry;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import ars.util.Streams;
+import ars.util.Servers;
 import ars.util.Strings;
 import ars.invoke.Context;
+import ars.invoke.InvokeCallback;
+import ars.invoke.InvokeException;
 import ars.invoke.convert.Converter;
+import ars.invoke.convert.StreamSerializer;
 import ars.invoke.channel.http.Https;
 import ars.invoke.channel.http.Render;
 import ars.invoke.channel.http.Redirector;
@@ -27,7 +39,10 @@ import ars.invoke.channel.http.HttpRequester;
  * 
  */
 public abstract class AbstractHttpChannel implements HttpChannel {
+	protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
 	private Context context; // 应用上下文
+	private long asyncTimeout; // 异步请求超时时间（毫秒），0表示使用Servlet容器默认配置
 	private Redirector[] redirectors = new Redirector[0]; // 请求重定向配置
 	private Map<String, Render> renders = new HashMap<String, Render>(0); // 视图渲染配置
 	private Map<String, String> templates = new HashMap<String, String>(0); // 模板映射
@@ -41,6 +56,17 @@ public abstract class AbstractHttpChannel implements HttpChannel {
 		this.redirectors = redirectors;
 	}
 
+	public long getAsyncTimeout() {
+		return asyncTimeout;
+	}
+
+	public void setAsyncTimeout(long asyncTimeout) {
+		if (asyncTimeout < 0) {
+			throw new IllegalArgumentException("Illegal asyncTimeout:" + asyncTimeout);
+		}
+		this.asyncTimeout = asyncTimeout;
+	}
+
 	public Map<String, Render> getRenders() {
 		return renders;
 	}
@@ -196,12 +222,69 @@ public abstract class AbstractHttpChannel implements HttpChannel {
 		this.context = context;
 	}
 
+	/**
+	 * 响应请求调用结果
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @param value
+	 *            请求调用结果
+	 * @throws Exception
+	 *             操作异常
+	 */
+	protected void response(HttpRequester requester, Object value) throws Exception {
+		Converter converter = null;
+		if (!Streams.isStream(value) && (converter = this.lookupConverter(requester)) != null) {
+			if (converter instanceof StreamSerializer && this.redirectors.length == 0) {
+				OutputStream os = requester.getHttpServletResponse().getOutputStream();
+				try {
+					((StreamSerializer) converter).serialize(value, os);
+				} finally {
+					os.close();
+				}
+				return;
+			}
+			value = converter.serialize(value);
+		}
+		this.output(requester, value);
+	}
+
+	/**
+	 * 输出请求处理结果
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @param value
+	 *            请求处理结果
+	 * @throws Exception
+	 *             操作异常
+	 */
+	private void output(HttpRequester requester, Object value) throws Exception {
+		if (value != null && !this.redirect(requester, value)) {
+			if (value instanceof Exception) {
+				throw (Exception) value;
+			}
+			Https.response(requester.getHttpServletResponse(), value);
+		}
+	}
+
 	@Override
 	public void dispatch(ServletConfig config, HttpServletRequest request, HttpServletResponse response)
 			throws Exception {
+		this.dispatch(this.getRequester(this.getUri(request), config, request, response));
+	}
+
+	/**
+	 * 请求调度
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @throws Exception
+	 *             操作异常
+	 */
+	protected void dispatch(HttpRequester requester) throws Exception {
 		Object value = null;
 		Converter converter = null;
-		HttpRequester requester = this.getRequester(this.getUri(request), config, request, response);
 		String template = this.lookupTemplate(requester);
 		if (template == null) {
 			try {
@@ -209,10 +292,10 @@ public abstract class AbstractHttpChannel implements HttpChannel {
 			} catch (Exception e) {
 				value = e;
 			}
-			if (!Streams.isStream(value) && (converter = this.lookupConverter(requester)) != null) {
-				value = converter.serialize(value);
-			}
-		} else if (Strings.isEmpty(request.getContentType()) || (converter = this.lookupConverter(requester)) == null) {
+			this.response(requester, value);
+			return;
+		} else if (Strings.isEmpty(requester.getHttpServletRequest().getContentType())
+				|| (converter = this.lookupConverter(requester)) == null) {
 			try {
 				requester.render(template, null);
 			} catch (Exception e) {
@@ -226,11 +309,103 @@ public abstract class AbstractHttpChannel implements HttpChannel {
 			}
 			value = converter.serialize(value);
 		}
-		if (value != null && !this.redirect(requester, value)) {
-			if (value instanceof Exception) {
-				throw (Exception) value;
+		this.output(requester, value);
+	}
+
+	/**
+	 * 异步请求调度
+	 * 
+	 * 仅对无视图模板且未配置请求重定向的资源请求异步处理，其他请求（视图渲染或重定向需要在容器线程中转发）使用同步方式调度；资源调用器不支持异步调用时异步处理无法释放容器线程，除虚拟线程模式（请求在虚拟线程中路由）外同样使用同步方式调度
+	 */
+	@Override
+	public void dispatchAsync(ServletConfig config, HttpServletRequest request, HttpServletResponse response)
+			throws Exception {
+		final HttpRequester requester = this.getRequester(this.getUri(request), config, request, response);
+		if (!request.isAsyncSupported() || this.redirectors.length > 0 || this.lookupTemplate(requester) != null
+				|| (!Servers.isVirtual() && !this.context.getRouter().isAsync(requester))) {
+			this.dispatch(requester);
+			return;
+		}
+		final AtomicBoolean completed = new AtomicBoolean();
+		final AsyncContext async = request.startAsync(request, response);
+		if (this.asyncTimeout > 0) {
+			async.setTimeout(this.asyncTimeout);
+		}
+		async.addListener(new AsyncListener() {
+
+			@Override
+			public void onTimeout(AsyncEvent event) throws IOException {
+				if (completed.compareAndSet(false, true)) {
+					complete(async, requester, new InvokeException("Request timeout:" + requester.getUri()));
+				}
+			}
+
+			@Override
+			public void onError(AsyncEvent event) throws IOException {
+				if (completed.compareAndSet(false, true)) {
+					async.complete();
+				}
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) throws IOException {
+
+			}
+
+			@Override
+			public void onComplete(AsyncEvent event) throws IOException {
+
+			}
+
+		});
+		final InvokeCallback callback = new InvokeCallback() {
+
+			@Override
+			public void complete(Object result) {
+				if (completed.compareAndSet(false, true)) {
+					AbstractHttpChannel.this.complete(async, requester, result);
+				}
+			}
+
+		};
+		if (Servers.isVirtual()) {
+			Servers.execute(Servers.EXECUTOR_DISPATCH, new Runnable() {
+
+				@Override
+				public void run() {
+					context.getRouter().routingAsync(requester, callback);
+				}
+
+			});
+		} else {
+			this.context.getRouter().routingAsync(requester, callback);
+		}
+	}
+
+	/**
+	 * 完成异步请求
+	 * 
+	 * @param async
+	 *            异步请求上下文
+	 * @param requester
+	 *            请求对象
+	 * @param value
+	 *            请求调用结果
+	 */
+	private void complete(AsyncContext async, HttpRequester requester, Object value) {
+		try {
+			this.response(requester, value);
+		} catch (Exception e) {
+			logger.error("Asynchronous request dispatch failed:" + requester.getUri(), e);
+			HttpServletResponse response = requester.getHttpServletResponse();
+			if (!response.isCommitted()) {
+				try {
+					response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+				} catch (IOException ioe) {
+				}
 			}
-			Https.response(response, value);
+		} finally {
+			async.complete();
 		}
 	}
 
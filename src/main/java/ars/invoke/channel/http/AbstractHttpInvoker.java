@@ -1,18 +1,27 @@
 package ars.invoke.channel.http;
 
+import java.util.Set;
+import java.util.HashSet;
 import java.util.Enumeration;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectTimeoutException;
 
 import ars.invoke.Invoker;
 import ars.invoke.Resource;
 import ars.invoke.remote.Node;
+import ars.invoke.remote.Nodes;
 import ars.invoke.remote.Protocol;
 import ars.invoke.remote.Endpoint;
+import ars.invoke.remote.Balancer;
+import ars.invoke.remote.NodeState;
 import ars.invoke.request.Requester;
 import ars.invoke.channel.http.Https;
 import ars.invoke.channel.http.HttpRequester;
@@ -20,10 +29,14 @@ import ars.invoke.channel.http.HttpRequester;
 /**
  * Http远程调用抽象实现
  * 
+ * 每次调用通过负载均衡器选择一个远程节点，节点通信失败时记录节点失败；仅在连接建立失败（请求尚未发送）时切换至其他可用节点重试
+ * 
  * @author yongqiangwu
  * 
  */
 public abstract class AbstractHttpInvoker implements Invoker {
+	private Balancer balancer; // 负载均衡器
+
 	/**
 	 * 接收响应结果
 	 * 
@@ -39,36 +52,109 @@ public abstract class AbstractHttpInvoker implements Invoker {
 	 */
 	protected abstract Object accept(Requester requester, Endpoint endpoint, HttpResponse response) throws Exception;
 
+	public Balancer getBalancer() {
+		return this.balancer == null ? Nodes.getBalancer() : this.balancer;
+	}
+
+	public void setBalancer(Balancer balancer) {
+		this.balancer = balancer;
+	}
+
+	/**
+	 * 判断是否为节点连接失败异常
+	 * 
+	 * @param e
+	 *            调用异常
+	 * @return true/false
+	 */
+	protected boolean isNodeFailure(Exception e) {
+		return e instanceof IOException;
+	}
+
+	/**
+	 * 判断是否可以切换至其他节点重试，仅在请求发送之前的连接建立失败时重试，避免非幂等请求被重复执行
+	 * 
+	 * @param e
+	 *            调用异常
+	 * @return true/false
+	 */
+	protected boolean isRetryable(Exception e) {
+		return e instanceof ConnectException || e instanceof ConnectTimeoutException
+				|| e instanceof UnknownHostException;
+	}
+
+	/**
+	 * 构建Http请求对象
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @param node
+	 *            远程节点
+	 * @param uri
+	 *            远程资源地址
+	 * @return Http请求对象
+	 * @throws Exception
+	 *             操作异常
+	 */
+	protected HttpUriRequest getHttpUriRequest(Requester requester, Node node, String uri) throws Exception {
+		String url = Https.getUrl(node, uri);
+		HttpUriRequest uriRequest = Https.getHttpUriRequest(url, Https.Method.POST, requester.getParameters());
+		if (requester instanceof HttpRequester) {
+			HttpServletRequest servletRequest = ((HttpRequester) requester).getHttpServletRequest();
+			Enumeration<String> headers = servletRequest.getHeaderNames();
+			while (headers.hasMoreElements()) {
+				String header = headers.nextElement();
+				uriRequest.setHeader(header, servletRequest.getHeader(header));
+			}
+		}
+		uriRequest.addHeader(Https.CONTEXT_TOKEN, requester.getToken().getCode());
+		return uriRequest;
+	}
+
 	@Override
 	public Object execute(Requester requester, Resource resource) throws Exception {
 		Endpoint endpoint = (Endpoint) resource;
-		String uri = endpoint.getUri();
-		Node[] nodes = endpoint.getNodes();
-		for (int i = 0; i < nodes.length; i++) {
-			Node node = nodes[i];
-			String url = Https.getUrl(node, uri == null ? requester.getUri() : uri);
-			HttpUriRequest uriRequest = Https.getHttpUriRequest(url, Https.Method.POST, requester.getParameters());
-			if (requester instanceof HttpRequester) {
-				HttpServletRequest servletRequest = ((HttpRequester) requester).getHttpServletRequest();
-				Enumeration<String> headers = servletRequest.getHeaderNames();
-				while (headers.hasMoreElements()) {
-					String header = headers.nextElement();
-					uriRequest.setHeader(header, servletRequest.getHeader(header));
+		String uri = endpoint.getUri() == null ? requester.getUri() : endpoint.getUri();
+		Balancer balancer = this.getBalancer();
+		Set<Node> excludes = null;
+		Exception failure = null;
+		while (true) {
+			Node node = balancer.select(endpoint.getNodes(), excludes);
+			if (node == null) {
+				if (failure != null) {
+					throw failure;
 				}
+				throw new RuntimeException("No available node:" + endpoint);
 			}
-			uriRequest.addHeader(Https.CONTEXT_TOKEN, requester.getToken().getCode());
-			HttpClient client = Https.getClient(node.getProtocol() == Protocol.https);
+			NodeState state = Nodes.getState(node);
+			long start = state.begin();
+			HttpUriRequest uriRequest = null;
 			try {
-				return this.accept(requester, endpoint, client.execute(uriRequest));
+				uriRequest = this.getHttpUriRequest(requester, node, uri);
+				HttpClient client = Https.getClient(node.getProtocol() == Protocol.https);
+				Object result = this.accept(requester, endpoint, client.execute(uriRequest));
+				state.success(start);
+				return result;
 			} catch (Exception e) {
-				if (i == nodes.length - 1) {
+				if (!this.isNodeFailure(e)) {
+					state.success(start);
 					throw e;
 				}
+				state.failure(start);
+				if (!this.isRetryable(e)) {
+					throw e;
+				}
+				failure = e;
+				if (excludes == null) {
+					excludes = new HashSet<Node>(endpoint.getNodes().length);
+				}
+				excludes.add(node);
 			} finally {
-				uriRequest.abort();
+				if (uriRequest != null) {
+					uriRequest.abort();
+				}
 			}
 		}
-		return null;
 	}
 
 }
@@ -28,4 +28,19 @@ public interface HttpChannel extends Channel {
 	public void dispatch(ServletConfig config, HttpServletRequest request, HttpServletResponse response)
 			throws Exception;
 
+	/**
+	 * 异步请求调度，请求处理过程不占用Servlet容器线程（需要Servlet容器开启异步支持）
+	 * 
+	 * @param config
+	 *            Servlet配制对象
+	 * @param request
+	 *            HTTP请求对象
+	 * @param response
+	 *            HTTP响应对象
+	 * @throws Exception
+	 *             操作异常
+	 */
+	public void dispatchAsync(ServletConfig config, HttpServletRequest request, HttpServletResponse response)
+			throws Exception;
+
 }
@@ -62,4 +62,10 @@ public class MultiHttpChannelWrapper implements HttpChannel {
 		this.lookupChannel(request).dispatch(config, request, response);
 	}
 
+	@Override
+	public void dispatchAsync(ServletConfig config, HttpServletRequest request, HttpServletResponse response)
+			throws Exception {
+		this.lookupChannel(request).dispatchAsync(config, request, response);
+	}
+
 }
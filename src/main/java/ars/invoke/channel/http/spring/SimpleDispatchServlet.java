@@ -15,6 +15,8 @@ import ars.invoke.channel.http.HttpChannel;
 /**
  * 请求调度Servlet简单实现
  * 
+ * Servlet开启异步支持（async-supported）时使用异步方式调度请求
+ * 
  * @author yongqiangwu
  * 
  */
@@ -41,7 +43,11 @@ public class SimpleDispatchServlet extends HttpServlet {
 	protected void doPost(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
 		try {
-			this.channel.dispatch(this.getServletConfig(), request, response);
+			if (request.isAsyncSupported()) {
+				this.channel.dispatchAsync(this.getServletConfig(), request, response);
+			} else {
+				this.channel.dispatch(this.getServletConfig(), request, response);
+			}
 		} catch (Exception e) {
 			if (e instanceof RuntimeException) {
 				throw (RuntimeException) e;
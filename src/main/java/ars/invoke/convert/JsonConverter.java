@@ -1,7 +1,11 @@
 package ars.invoke.convert;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import ars.util.Jsons;
 import ars.invoke.convert.Converter;
+import ars.invoke.convert.StreamSerializer;
 
 /**
  * 基于json格式的对象数据转换实现
@@ -9,7 +13,7 @@ import ars.invoke.convert.Converter;
  * @author yongqiangwu
  * 
  */
-public class JsonConverter implements Converter {
+public class JsonConverter implements Converter, StreamSerializer {
 	protected final int depth; // json转换对象属性下钻深度
 
 	public JsonConverter() {
@@ -25,6 +29,11 @@ public class JsonConverter implements Converter {
 		return Jsons.format(object, this.depth);
 	}
 
+	@Override
+	public void serialize(Object object, OutputStream output) throws IOException {
+		Jsons.write(object, output, this.depth);
+	}
+
 	@Override
 	public Object deserialize(String string) {
 		return Jsons.parse(string);
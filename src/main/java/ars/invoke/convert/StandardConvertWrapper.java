@@ -2,10 +2,13 @@ package ars.invoke.convert;
 
 import java.util.Map;
 import java.util.HashMap;
+import java.io.IOException;
+import java.io.OutputStream;
 
 import ars.util.Beans;
 import ars.invoke.InvokeException;
 import ars.invoke.convert.Converter;
+import ars.invoke.convert.StreamSerializer;
 import ars.invoke.convert.ThrowableResolver;
 import ars.invoke.request.AccessDeniedException;
 import ars.invoke.request.TokenInvalidException;
@@ -18,7 +21,7 @@ import ars.invoke.request.ParameterInvalidException;
  * @author yongqiangwu
  *
  */
-public class StandardConvertWrapper implements Converter {
+public class StandardConvertWrapper implements Converter, StreamSerializer {
 	/**
 	 * 结果码标识
 	 */
@@ -179,6 +182,18 @@ public class StandardConvertWrapper implements Converter {
 		return this.converter.serialize(this.wrap(object));
 	}
 
+	@Override
+	public void serialize(Object object, OutputStream output) throws IOException {
+		if (this.converter instanceof StreamSerializer) {
+			((StreamSerializer) this.converter).serialize(this.wrap(object), output);
+		} else {
+			String content = this.converter.serialize(this.wrap(object));
+			if (content != null) {
+				output.write(content.getBytes());
+			}
+		}
+	}
+
 	@Override
 	public Object deserialize(String string) {
 		return this.unwrap((Map<?, ?>) this.converter.deserialize(string));
@@ -0,0 +1,27 @@
+package ars.invoke.convert;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import ars.invoke.convert.Serializer;
+
+/**
+ * 对象流式序列化接口
+ * 
+ * @author yongqiangwu
+ *
+ */
+public interface StreamSerializer extends Serializer {
+	/**
+	 * 将对象序列化并直接写入输出流
+	 * 
+	 * @param object
+	 *            被序列化对象
+	 * @param output
+	 *            输出流
+	 * @throws IOException
+	 *             IO操作异常
+	 */
+	public void serialize(Object object, OutputStream output) throws IOException;
+
+}
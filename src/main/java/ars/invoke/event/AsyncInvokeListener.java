@@ -0,0 +1,20 @@
+package ars.invoke.event;
+
+import ars.invoke.event.InvokeEvent;
+import ars.invoke.event.InvokeListener;
+
+/**
+ * 异步请求调用监听器标记接口
+ * 
+ * 实现该接口的监听器将在事件线程池中执行，不占用请求线程，适用于审计、统计等对实时性无要求的监听处理
+ * 
+ * 事件线程池任务积压（队列已满）时新事件将被丢弃，不会阻塞请求线程；丢弃的事件数量可通过StandardRouter.getDroppedEventCount()获取，并记录警告日志；不允许丢失事件的监听器（如强制审计）应实现为同步监听器
+ * 
+ * @author yongqiangwu
+ * 
+ * @param <E>
+ *            事件模型
+ */
+public interface AsyncInvokeListener<E extends InvokeEvent> extends InvokeListener<E> {
+
+}
@@ -13,16 +13,26 @@ public class InvokeCompleteEvent extends InvokeEvent {
 	private static final long serialVersionUID = 1L;
 
 	private Object value; // 调用结果
+	private Boolean cached; // 是否命中缓存（非缓存资源为null）
 
 	public InvokeCompleteEvent(Requester requester, Object value) {
+		this(requester, value, null);
+	}
+
+	public InvokeCompleteEvent(Requester requester, Object value, Boolean cached) {
 		super(requester);
 		this.value = value;
+		this.cached = cached;
 	}
 
 	public Object getValue() {
 		return value;
 	}
 
+	public Boolean getCached() {
+		return cached;
+	}
+
 	public boolean isFailed() {
 		return value instanceof Throwable;
 	}
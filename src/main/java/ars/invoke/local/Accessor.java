@@ -0,0 +1,23 @@
+package ars.invoke.local;
+
+/**
+ * 方法调用接口
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public interface Accessor {
+	/**
+	 * 执行方法调用
+	 * 
+	 * @param target
+	 *            目标对象（静态方法时忽略）
+	 * @param parameters
+	 *            方法参数数组
+	 * @return 方法返回值
+	 * @throws Exception
+	 *             操作异常
+	 */
+	public Object invoke(Object target, Object[] parameters) throws Exception;
+
+}
@@ -226,98 +226,188 @@ public final class Apis {
 	}
 
 	/**
-	 * 获取本地接口方法参数
+	 * 参数绑定方式
+	 */
+	private static final int ROUTER = 1, CHANNEL = 2, CONTEXT = 3, MESSAGER = 4, REQUESTER = 5, TOKEN = 6,
+			SESSION = 7, SESSION_FACTORY = 8, MAP = 9, BEAN = 10, ADAPTER = 11, VALUE = 12, OBJECT = 13, PARAMETER = 14;
+
+	/**
+	 * 方法参数绑定计划，在首次调用时根据参数条件生成并缓存在本地资源对象中
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	static class Binder {
+		private int mode; // 绑定方式
+		private String name; // 参数名称
+		private Class<?> type; // 参数类型
+		private Field[] fields; // 对象参数属性
+		private boolean consumed; // 参数是否已被之前的参数绑定
+		private Condition condition; // 参数条件
+
+	}
+
+	/**
+	 * 构建本地接口方法参数绑定计划
+	 * 
+	 * 参数按方法参数顺序依次消费，已被之前参数或对象属性绑定的参数名称不再重复绑定，Map类型参数为剩余未被绑定的参数
 	 * 
-	 * @param requester
-	 *            请求对象
 	 * @param function
 	 *            本地资源对象
-	 * @return 本地接口方法参数数组
-	 * @throws Exception
-	 *             操作异常
+	 * @return 参数绑定计划数组
 	 */
-	public static Object[] getParameters(Requester requester, Function function) throws Exception {
-		if (requester == null) {
-			throw new IllegalArgumentException("Illegal requester:" + requester);
-		}
+	private static Binder[] getBinders(Function function) {
 		Condition[] conditions = function.getConditions();
 		Class<?>[] types = function.getMethod().getParameterTypes();
-		Object[] arguments = new Object[conditions.length];
-		Map<String, Object> parameters = new HashMap<String, Object>(requester.getParameters());
+		Binder[] binders = new Binder[conditions.length];
+		Set<String> consumes = new HashSet<String>();
 		for (int i = 0; i < conditions.length; i++) {
+			Binder binder = new Binder();
 			Class<?> type = types[i];
 			Condition condition = conditions[i];
+			binder.type = type;
+			binder.condition = condition;
 			if (condition == null) {
 				if (Router.class.isAssignableFrom(type)) {
-					arguments[i] = requester.getChannel().getContext().getRouter();
+					binder.mode = ROUTER;
 				} else if (Channel.class.isAssignableFrom(type)) {
-					arguments[i] = requester.getChannel();
+					binder.mode = CHANNEL;
 				} else if (Context.class.isAssignableFrom(type)) {
-					arguments[i] = requester.getChannel().getContext();
+					binder.mode = CONTEXT;
 				} else if (Messager.class.isAssignableFrom(type)) {
-					arguments[i] = requester.getChannel().getContext().getMessager();
+					binder.mode = MESSAGER;
 				} else if (Requester.class.isAssignableFrom(type)) {
-					arguments[i] = requester;
+					binder.mode = REQUESTER;
 				} else if (Token.class.isAssignableFrom(type)) {
-					arguments[i] = requester.getToken();
+					binder.mode = TOKEN;
 				} else if (Session.class.isAssignableFrom(type)) {
-					arguments[i] = requester.getSession();
+					binder.mode = SESSION;
 				} else if (SessionFactory.class.isAssignableFrom(type)) {
-					arguments[i] = requester.getSession().getSessionFactory();
+					binder.mode = SESSION_FACTORY;
 				} else if (Map.class.isAssignableFrom(type)) {
-					arguments[i] = parameters;
+					binder.mode = MAP;
 				} else {
-					arguments[i] = requester.getChannel().getContext().getBean(type);
+					binder.mode = BEAN;
 				}
-			} else if (condition.getAdapter() == null) {
-				String name = condition.getName();
+			} else if (condition.getAdapter() != null) {
+				binder.mode = ADAPTER;
+			} else if (condition.getName() != null) {
+				binder.mode = PARAMETER;
+				binder.name = condition.getName();
+				binder.consumed = !consumes.add(binder.name);
+			} else if (Beans.isMetaClass(type)) {
+				binder.mode = VALUE;
+			} else {
+				binder.mode = OBJECT;
+				List<Field> fields = new LinkedList<Field>();
+				while (type != null && type != Object.class) {
+					for (Field field : type.getDeclaredFields()) {
+						if (!Modifier.isStatic(field.getModifiers()) && consumes.add(field.getName())) {
+							field.setAccessible(true);
+							fields.add(field);
+						}
+					}
+					type = type.getSuperclass();
+				}
+				binder.fields = fields.toArray(new Field[0]);
+			}
+			binders[i] = binder;
+		}
+		function.setBinders(binders);
+		return binders;
+	}
+
+	/**
+	 * 获取本地接口方法参数
+	 * 
+	 * @param requester
+	 *            请求对象
+	 * @param function
+	 *            本地资源对象
+	 * @return 本地接口方法参数数组
+	 * @throws Exception
+	 *             操作异常
+	 */
+	public static Object[] getParameters(Requester requester, Function function) throws Exception {
+		if (requester == null) {
+			throw new IllegalArgumentException("Illegal requester:" + requester);
+		}
+		Binder[] binders = function.getBinders();
+		if (binders == null) {
+			binders = getBinders(function);
+		}
+		Object[] arguments = new Object[binders.length];
+		Map<String, Object> parameters = requester.getParameters();
+		for (int i = 0; i < binders.length; i++) {
+			Binder binder = binders[i];
+			Condition condition = binder.condition;
+			switch (binder.mode) {
+			case ROUTER:
+				arguments[i] = requester.getChannel().getContext().getRouter();
+				break;
+			case CHANNEL:
+				arguments[i] = requester.getChannel();
+				break;
+			case CONTEXT:
+				arguments[i] = requester.getChannel().getContext();
+				break;
+			case MESSAGER:
+				arguments[i] = requester.getChannel().getContext().getMessager();
+				break;
+			case REQUESTER:
+				arguments[i] = requester;
+				break;
+			case TOKEN:
+				arguments[i] = requester.getToken();
+				break;
+			case SESSION:
+				arguments[i] = requester.getSession();
+				break;
+			case SESSION_FACTORY:
+				arguments[i] = requester.getSession().getSessionFactory();
+				break;
+			case MAP:
+				arguments[i] = getRemainParameters(parameters, binders);
+				break;
+			case BEAN:
+				arguments[i] = requester.getChannel().getContext().getBean(binder.type);
+				break;
+			case ADAPTER:
+				arguments[i] = condition.getAdapter().adaption(requester, binder.type);
+				break;
+			default:
 				try {
-					if (name == null) {
-						if (Beans.isMetaClass(type)) {
-							arguments[i] = Beans.toObject(type, condition.getValue());
-						} else {
-							Object instance = Beans.getInstance(type);
-							if (!parameters.isEmpty()) {
-								while (type != Object.class) {
-									Field[] fields = type.getDeclaredFields();
-									for (Field field : fields) {
-										if (parameters.containsKey(field.getName())
-												&& !Modifier.isStatic(field.getModifiers())) {
-											Object value = parameters.remove(field.getName());
-											if (value == null) {
-												continue;
-											}
-											field.setAccessible(true);
-											try {
-												field.set(instance, Beans.toObject(field.getType(), value));
-											} catch (IllegalAccessException e) {
-												throw new RuntimeException(e);
-											} finally {
-												field.setAccessible(false);
-											}
-										}
+					if (binder.mode == VALUE) {
+						arguments[i] = Beans.toObject(binder.type, condition.getValue());
+					} else if (binder.mode == OBJECT) {
+						Object instance = Beans.getInstance(binder.type);
+						if (!parameters.isEmpty()) {
+							for (Field field : binder.fields) {
+								Object value = parameters.get(field.getName());
+								if (value != null) {
+									try {
+										field.set(instance, Beans.toObject(field.getType(), value));
+									} catch (IllegalAccessException e) {
+										throw new RuntimeException(e);
 									}
-									type = type.getSuperclass();
 								}
 							}
-							arguments[i] = instance;
 						}
+						arguments[i] = instance;
 					} else {
-						Object value = parameters.remove(name);
+						Object value = binder.consumed ? null : parameters.get(binder.name);
 						if (value == null) {
 							value = condition.getValue();
 						}
 						if (condition.getPattern() != null && value instanceof CharSequence
 								&& !condition.getPattern().matcher((CharSequence) value).matches()) {
-							throw new ParameterInvalidException(name, "invalid");
+							throw new ParameterInvalidException(binder.name, "invalid");
 						}
-						arguments[i] = Beans.toObject(type, value);
+						arguments[i] = Beans.toObject(binder.type, value);
 					}
 				} catch (IllegalArgumentException e) {
-					throw new ParameterInvalidException(name, e.getMessage());
+					throw new ParameterInvalidException(binder.name, e.getMessage());
 				}
-			} else {
-				arguments[i] = condition.getAdapter().adaption(requester, type);
 			}
 			if (condition != null && condition.isRequired() && Beans.isEmpty(arguments[i])) {
 				throw new ParameterInvalidException(condition.getName(), "required");
@@ -326,6 +416,29 @@ public final class Apis {
 		return arguments;
 	}
 
+	/**
+	 * 获取未被其他方法参数绑定的剩余请求参数
+	 * 
+	 * @param parameters
+	 *            请求参数
+	 * @param binders
+	 *            参数绑定计划数组
+	 * @return 剩余请求参数
+	 */
+	private static Map<String, Object> getRemainParameters(Map<String, Object> parameters, Binder[] binders) {
+		Map<String, Object> remains = new HashMap<String, Object>(parameters);
+		for (Binder binder : binders) {
+			if (binder.mode == PARAMETER) {
+				remains.remove(binder.name);
+			} else if (binder.mode == OBJECT) {
+				for (Field field : binder.fields) {
+					remains.remove(field.getName());
+				}
+			}
+		}
+		return remains;
+	}
+
 	/**
 	 * 获取接口地址树
 	 * 
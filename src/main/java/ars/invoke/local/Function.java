@@ -4,7 +4,10 @@ import java.lang.reflect.Method;
 
 import ars.util.Beans;
 import ars.invoke.Resource;
+import ars.invoke.local.Apis;
+import ars.invoke.local.Accessor;
 import ars.invoke.local.Condition;
+import ars.invoke.local.ReflectAccessor;
 
 /**
  * 对象方法资源
@@ -18,6 +21,16 @@ public class Function implements Resource {
 	private transient Object target; // 目标对象或实例
 	private transient Method method; // 目标方法对象
 	private transient Condition[] conditions; // 参数条件数组
+	private transient volatile Accessor accessor; // 方法调用对象
+	private transient volatile Apis.Binder[] binders; // 参数绑定计划
+
+	public Function(Object target, Method method, Accessor accessor, Condition... conditions) {
+		this(target, method, conditions);
+		if (accessor == null) {
+			throw new IllegalArgumentException("Illegal accessor:" + accessor);
+		}
+		this.accessor = accessor;
+	}
 
 	public Function(Object target, Method method, Condition... conditions) {
 		if (target == null) {
@@ -84,6 +97,21 @@ public class Function implements Resource {
 		return conditions;
 	}
 
+	public Accessor getAccessor() {
+		if (this.accessor == null) {
+			this.accessor = new ReflectAccessor(this.method);
+		}
+		return accessor;
+	}
+
+	Apis.Binder[] getBinders() {
+		return binders;
+	}
+
+	void setBinders(Apis.Binder[] binders) {
+		this.binders = binders;
+	}
+
 	@Override
 	public String toString() {
 		return this.method.toString();
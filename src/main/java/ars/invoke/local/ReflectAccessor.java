@@ -0,0 +1,41 @@
+package ars.invoke.local;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.InvocationTargetException;
+
+import ars.invoke.local.Accessor;
+
+/**
+ * 基于反射的方法调用实现（方法访问权限只在初始化时设置一次）
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class ReflectAccessor implements Accessor {
+	protected final Method method; // 目标方法对象
+
+	public ReflectAccessor(Method method) {
+		if (method == null) {
+			throw new IllegalArgumentException("Illegal method:" + method);
+		}
+		try {
+			method.setAccessible(true);
+		} catch (SecurityException e) {
+		}
+		this.method = method;
+	}
+
+	@Override
+	public Object invoke(Object target, Object[] parameters) throws Exception {
+		try {
+			return this.method.invoke(target, parameters);
+		} catch (InvocationTargetException e) {
+			Throwable error = e.getTargetException();
+			if (error instanceof Exception) {
+				throw (Exception) error;
+			}
+			throw new Exception(error);
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package ars.invoke.remote;
+
+import java.util.Collection;
+
+import ars.util.Strings;
+import ars.invoke.remote.Node;
+import ars.invoke.remote.Nodes;
+import ars.invoke.remote.Balancer;
+import ars.invoke.remote.NodeState;
+
+/**
+ * 远程节点负载均衡器抽象实现，过滤已排除、不健康及熔断中的节点
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public abstract class AbstractBalancer implements Balancer {
+	/**
+	 * 从可用节点中选择节点
+	 * 
+	 * @param states
+	 *            可用节点状态数组
+	 * @param count
+	 *            可用节点数量
+	 * @return 节点状态
+	 */
+	protected abstract NodeState choose(NodeState[] states, int count);
+
+	@Override
+	public Node select(Node[] nodes, Collection<Node> excludes) {
+		if (nodes == null || nodes.length == 0) {
+			throw new IllegalArgumentException("Illegal nodes:" + Strings.toString(nodes));
+		}
+		int count = 0;
+		NodeState[] states = new NodeState[nodes.length];
+		for (Node node : nodes) {
+			if (excludes == null || excludes.isEmpty() || !excludes.contains(node)) {
+				NodeState state = Nodes.getState(node);
+				if (state.isAvailable()) {
+					states[count++] = state;
+				}
+			}
+		}
+		if (count == 0) {
+			return null;
+		}
+		return count == 1 ? states[0].node : this.choose(states, count).node;
+	}
+
+}
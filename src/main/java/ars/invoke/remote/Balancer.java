@@ -0,0 +1,25 @@
+package ars.invoke.remote;
+
+import java.util.Collection;
+
+import ars.invoke.remote.Node;
+
+/**
+ * 远程节点负载均衡器接口
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public interface Balancer {
+	/**
+	 * 选择远程节点
+	 * 
+	 * @param nodes
+	 *            候选节点数组
+	 * @param excludes
+	 *            排除节点集合（本次调用已失败的节点）
+	 * @return 远程节点，无可用节点时返回null
+	 */
+	public Node select(Node[] nodes, Collection<Node> excludes);
+
+}
@@ -0,0 +1,33 @@
+package ars.invoke.remote;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ars.invoke.remote.NodeState;
+import ars.invoke.remote.AbstractBalancer;
+
+/**
+ * 响应时间负载均衡器，按响应时间指数加权移动平均值与并发请求数的乘积选择负载最低的节点，尚无响应时间记录的节点优先选择
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class LatencyBalancer extends AbstractBalancer {
+	private final AtomicInteger counter = new AtomicInteger();
+
+	@Override
+	protected NodeState choose(NodeState[] states, int count) {
+		int offset = (this.counter.getAndIncrement() & Integer.MAX_VALUE) % count;
+		NodeState selected = null;
+		double least = Double.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			NodeState state = states[(offset + i) % count];
+			double load = state.getLatency() * (state.getActive() + 1);
+			if (load < least) {
+				least = load;
+				selected = state;
+			}
+		}
+		return selected;
+	}
+
+}
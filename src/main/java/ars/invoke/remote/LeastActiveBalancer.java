@@ -0,0 +1,33 @@
+package ars.invoke.remote;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ars.invoke.remote.NodeState;
+import ars.invoke.remote.AbstractBalancer;
+
+/**
+ * 最少并发请求负载均衡器，并发请求数相同时轮询选择
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class LeastActiveBalancer extends AbstractBalancer {
+	private final AtomicInteger counter = new AtomicInteger();
+
+	@Override
+	protected NodeState choose(NodeState[] states, int count) {
+		int offset = (this.counter.getAndIncrement() & Integer.MAX_VALUE) % count;
+		NodeState selected = null;
+		int least = Integer.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			NodeState state = states[(offset + i) % count];
+			int active = state.getActive();
+			if (active < least) {
+				least = active;
+				selected = state;
+			}
+		}
+		return selected;
+	}
+
+}
@@ -0,0 +1,136 @@
+package ars.invoke.remote;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ars.invoke.remote.Node;
+import ars.invoke.remote.Nodes;
+
+/**
+ * 远程节点运行状态，包括并发请求数、响应时间指数加权移动平均值、健康状态及熔断状态
+ * 
+ * 连续失败次数达到阈值后熔断器打开，节点在恢复时间内不可用；超过恢复时间后允许试探请求通过，试探成功则关闭熔断器，失败则重新打开
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class NodeState {
+	/**
+	 * 响应时间平滑系数
+	 */
+	public static final double ALPHA = 0.2;
+
+	public final Node node; // 远程节点
+	private volatile double latency; // 响应时间指数加权移动平均值（毫秒）
+	private volatile boolean healthy = true; // 是否健康
+	private volatile long opened; // 熔断器打开时间（毫秒），0表示熔断器关闭
+	private final AtomicInteger active = new AtomicInteger(); // 并发请求数
+	private final AtomicInteger failures = new AtomicInteger(); // 连续失败次数
+
+	public NodeState(Node node) {
+		if (node == null) {
+			throw new IllegalArgumentException("Illegal node:" + node);
+		}
+		this.node = node;
+	}
+
+	/**
+	 * 判断节点当前是否可用
+	 * 
+	 * @return true/false
+	 */
+	public boolean isAvailable() {
+		if (!this.healthy) {
+			return false;
+		}
+		long opened = this.opened;
+		return opened == 0 || System.currentTimeMillis() - opened >= Nodes.getRecoveryTimeout();
+	}
+
+	/**
+	 * 开始请求，熔断器处于打开状态时本次请求作为试探请求，并在结果返回前阻止其他请求通过
+	 * 
+	 * @return 请求开始时间（纳秒）
+	 */
+	public long begin() {
+		if (this.opened != 0) {
+			this.opened = System.currentTimeMillis();
+		}
+		this.active.incrementAndGet();
+		return System.nanoTime();
+	}
+
+	/**
+	 * 请求成功
+	 * 
+	 * @param start
+	 *            请求开始时间（纳秒）
+	 */
+	public void success(long start) {
+		this.active.decrementAndGet();
+		this.record(start);
+		this.failures.set(0);
+		this.opened = 0;
+	}
+
+	/**
+	 * 请求失败
+	 * 
+	 * @param start
+	 *            请求开始时间（纳秒）
+	 */
+	public void failure(long start) {
+		this.active.decrementAndGet();
+		this.record(start);
+		if (this.failures.incrementAndGet() >= Nodes.getFailureThreshold() || this.opened != 0) {
+			this.opened = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * 记录响应时间
+	 * 
+	 * @param start
+	 *            请求开始时间（纳秒）
+	 */
+	protected void record(long start) {
+		double elapsed = (System.nanoTime() - start) / 1000000d;
+		double latency = this.latency;
+		this.latency = latency == 0 ? elapsed : latency + ALPHA * (elapsed - latency);
+	}
+
+	public Node getNode() {
+		return node;
+	}
+
+	public int getActive() {
+		return this.active.get();
+	}
+
+	public double getLatency() {
+		return latency;
+	}
+
+	public int getFailures() {
+		return this.failures.get();
+	}
+
+	public boolean isOpen() {
+		return this.opened != 0;
+	}
+
+	public boolean isHealthy() {
+		return healthy;
+	}
+
+	public void setHealthy(boolean healthy) {
+		this.healthy = healthy;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder().append(this.node).append("{active=").append(this.getActive()).append(", latency=")
+				.append(this.latency).append(", failures=").append(this.getFailures()).append(", open=")
+				.append(this.isOpen()).append(", healthy=").append(this.healthy).append('}').toString();
+	}
+
+}
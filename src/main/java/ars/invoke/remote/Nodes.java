@@ -0,0 +1,227 @@
+package ars.invoke.remote;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ars.util.AbstractServer;
+import ars.invoke.remote.Node;
+import ars.invoke.remote.Protocol;
+import ars.invoke.remote.Balancer;
+import ars.invoke.remote.NodeState;
+import ars.invoke.remote.RoundRobinBalancer;
+
+/**
+ * 远程节点状态管理工具类，远程调用及Http远程调用共享节点状态、熔断配置及健康检查
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public final class Nodes {
+	/**
+	 * 默认熔断失败次数阈值
+	 */
+	public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+	/**
+	 * 默认熔断恢复时间（毫秒）
+	 */
+	public static final int DEFAULT_RECOVERY_TIMEOUT = 10000;
+
+	/**
+	 * 默认健康检查连接超时时间（毫秒）
+	 */
+	public static final int DEFAULT_CHECK_TIMEOUT = 3000;
+
+	private static volatile Balancer balancer = new RoundRobinBalancer(); // 默认负载均衡器
+	private static volatile int failureThreshold = DEFAULT_FAILURE_THRESHOLD; // 熔断失败次数阈值
+	private static volatile int recoveryTimeout = DEFAULT_RECOVERY_TIMEOUT; // 熔断恢复时间（毫秒）
+	private static volatile int checkTimeout = DEFAULT_CHECK_TIMEOUT; // 健康检查连接超时时间（毫秒）
+	private static HealthChecker checker; // 健康检查服务
+	private static final ConcurrentMap<Node, NodeState> states = new ConcurrentHashMap<Node, NodeState>(); // 节点/节点状态映射
+
+	private Nodes() {
+
+	}
+
+	/**
+	 * 节点健康检查服务，定时尝试与节点建立连接并更新节点健康状态
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	static class HealthChecker extends AbstractServer {
+		private final int interval; // 检查间隔时间（毫秒）
+
+		public HealthChecker(int interval) {
+			this.interval = interval;
+		}
+
+		@Override
+		public void run() {
+			while (!Thread.currentThread().isInterrupted()) {
+				try {
+					Thread.sleep(this.interval);
+				} catch (InterruptedException e) {
+					break;
+				}
+				for (NodeState state : states.values()) {
+					boolean healthy = check(state.node);
+					if (healthy != state.isHealthy()) {
+						state.setHealthy(healthy);
+						if (healthy) {
+							logger.info("Node recovered: {}", state.node);
+						} else {
+							logger.warn("Node unreachable: {}", state.node);
+						}
+					}
+				}
+			}
+		}
+
+	}
+
+	public static Balancer getBalancer() {
+		return balancer;
+	}
+
+	public static void setBalancer(Balancer balancer) {
+		if (balancer == null) {
+			throw new IllegalArgumentException("Illegal balancer:" + balancer);
+		}
+		Nodes.balancer = balancer;
+	}
+
+	public static int getFailureThreshold() {
+		return failureThreshold;
+	}
+
+	public static void setFailureThreshold(int failureThreshold) {
+		if (failureThreshold < 1) {
+			throw new IllegalArgumentException("Illegal failureThreshold:" + failureThreshold);
+		}
+		Nodes.failureThreshold = failureThreshold;
+	}
+
+	public static int getRecoveryTimeout() {
+		return recoveryTimeout;
+	}
+
+	public static void setRecoveryTimeout(int recoveryTimeout) {
+		if (recoveryTimeout < 0) {
+			throw new IllegalArgumentException("Illegal recoveryTimeout:" + recoveryTimeout);
+		}
+		Nodes.recoveryTimeout = recoveryTimeout;
+	}
+
+	public static int getCheckTimeout() {
+		return checkTimeout;
+	}
+
+	public static void setCheckTimeout(int checkTimeout) {
+		if (checkTimeout < 1) {
+			throw new IllegalArgumentException("Illegal checkTimeout:" + checkTimeout);
+		}
+		Nodes.checkTimeout = checkTimeout;
+	}
+
+	/**
+	 * 设置健康检查间隔时间，大于0时启动健康检查服务，等于0时停止健康检查服务
+	 * 
+	 * @param interval
+	 *            检查间隔时间（毫秒）
+	 */
+	public static synchronized void setCheckInterval(int interval) {
+		if (interval < 0) {
+			throw new IllegalArgumentException("Illegal interval:" + interval);
+		}
+		if (checker != null) {
+			checker.stop();
+			checker = null;
+		}
+		if (interval > 0) {
+			checker = new HealthChecker(interval);
+			checker.setDaemon(true);
+			checker.start();
+		} else {
+			for (NodeState state : states.values()) {
+				state.setHealthy(true);
+			}
+		}
+	}
+
+	/**
+	 * 获取节点状态
+	 * 
+	 * @param node
+	 *            远程节点
+	 * @return 节点状态
+	 */
+	public static NodeState getState(Node node) {
+		if (node == null) {
+			throw new IllegalArgumentException("Illegal node:" + node);
+		}
+		NodeState state = states.get(node);
+		if (state == null) {
+			state = new NodeState(node);
+			NodeState exists = states.putIfAbsent(node, state);
+			if (exists != null) {
+				state = exists;
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * 获取所有节点状态
+	 * 
+	 * @return 节点状态集合
+	 */
+	public static Collection<NodeState> getStates() {
+		return Collections.unmodifiableCollection(states.values());
+	}
+
+	/**
+	 * 检查节点是否可以建立连接，UDP节点始终视为可连接
+	 * 
+	 * @param node
+	 *            远程节点
+	 * @return true/false
+	 */
+	public static boolean check(Node node) {
+		if (node == null) {
+			throw new IllegalArgumentException("Illegal node:" + node);
+		}
+		if (node.getProtocol() == Protocol.udp) {
+			return true;
+		}
+		Socket socket = new Socket();
+		try {
+			socket.connect(new InetSocketAddress(node.getHost(), node.getPort()), checkTimeout);
+			return true;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			try {
+				socket.close();
+			} catch (IOException e) {
+			}
+		}
+	}
+
+	/**
+	 * 清空节点状态并停止健康检查服务
+	 */
+	public static synchronized void destroy() {
+		if (checker != null) {
+			checker.stop();
+			checker = null;
+		}
+		states.clear();
+	}
+
+}
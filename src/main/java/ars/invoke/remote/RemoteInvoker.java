@@ -1,29 +1,168 @@
 package ars.invoke.remote;
 
-import ars.invoke.Invoker;
+import java.util.Set;
+import java.util.HashSet;
+
 import ars.invoke.Resource;
+import ars.invoke.AsyncInvoker;
+import ars.invoke.InvokeCallback;
+import ars.invoke.remote.Node;
+import ars.invoke.remote.Nodes;
 import ars.invoke.remote.Remotes;
 import ars.invoke.remote.Endpoint;
+import ars.invoke.remote.Balancer;
+import ars.invoke.remote.NodeState;
 import ars.invoke.request.Requester;
 
 /**
  * 基于ICE消息中间的远程调用实现
  * 
+ * 每次调用通过负载均衡器选择一个远程节点，节点通信失败时记录节点失败；仅在连接建立失败（请求尚未发送）时切换至其他可用节点重试
+ * 
  * @author yongqiangwu
  * 
  */
-public class RemoteInvoker implements Invoker {
+public class RemoteInvoker implements AsyncInvoker {
+	private Balancer balancer; // 负载均衡器
+
+	public Balancer getBalancer() {
+		return this.balancer == null ? Nodes.getBalancer() : this.balancer;
+	}
+
+	public void setBalancer(Balancer balancer) {
+		this.balancer = balancer;
+	}
+
+	/**
+	 * 判断是否为节点连接失败异常
+	 * 
+	 * @param e
+	 *            调用异常
+	 * @return true/false
+	 */
+	protected boolean isNodeFailure(Throwable e) {
+		return e instanceof Ice.SocketException || e instanceof Ice.TimeoutException || e instanceof Ice.DNSException;
+	}
+
+	/**
+	 * 判断是否可以切换至其他节点重试，仅在请求发送之前的连接建立失败时重试，避免非幂等请求被重复执行
+	 * 
+	 * @param e
+	 *            调用异常
+	 * @return true/false
+	 */
+	protected boolean isRetryable(Throwable e) {
+		return e instanceof Ice.ConnectFailedException || e instanceof Ice.ConnectTimeoutException
+				|| e instanceof Ice.DNSException;
+	}
+
+	/**
+	 * 异步远程调用过程，节点连接建立失败时切换至其他可用节点重试；重试在远程调用结果回调线程中进行，使用非检查转换的代理，避免阻塞的类型验证请求
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	class AsyncInvocation implements InvokeCallback {
+		private long start; // 当前请求开始时间
+		private NodeState state; // 当前节点状态
+		private Throwable failure; // 最后一次节点失败异常
+		private final String uri; // 远程资源地址
+		private final Requester requester; // 请求对象
+		private final Endpoint endpoint; // 远程端点
+		private final InvokeCallback callback; // 调用结果回调对象
+		private final Set<Node> excludes = new HashSet<Node>(0); // 已失败节点集合
+
+		public AsyncInvocation(Requester requester, Endpoint endpoint, InvokeCallback callback) {
+			this.requester = requester;
+			this.endpoint = endpoint;
+			this.callback = callback;
+			this.uri = endpoint.getUri() == null ? requester.getUri() : endpoint.getUri();
+		}
+
+		/**
+		 * 选择节点并发起调用
+		 */
+		public void next() {
+			Node node = getBalancer().select(this.endpoint.getNodes(), this.excludes);
+			if (node == null) {
+				this.callback.complete(this.failure == null
+						? new RuntimeException("No available node:" + this.endpoint) : this.failure);
+				return;
+			}
+			this.state = Nodes.getState(node);
+			this.start = this.state.begin();
+			try {
+				Ice.ObjectPrx proxy = this.excludes.isEmpty() ? Remotes.getProxy(node) : Remotes.getUncheckedProxy(node);
+				Remotes.invoke(proxy, this.requester.getToken(), this.uri, this.requester.getParameters(), this);
+			} catch (Exception e) {
+				this.complete(e);
+			}
+		}
+
+		@Override
+		public void complete(Object result) {
+			if (result instanceof Throwable && isNodeFailure((Throwable) result)) {
+				this.state.failure(this.start);
+				if (isRetryable((Throwable) result)) {
+					this.failure = (Throwable) result;
+					this.excludes.add(this.state.node);
+					this.next();
+					return;
+				}
+			} else {
+				this.state.success(this.start);
+			}
+			this.callback.complete(result);
+		}
+
+	}
 
 	@Override
 	public Object execute(Requester requester, Resource resource) throws Exception {
 		Endpoint endpoint = (Endpoint) resource;
-		String uri = endpoint.getUri();
-		try {
-			return Remotes.invoke(Remotes.getProxy(endpoint.getNodes()), requester.getToken(),
-					uri == null ? requester.getUri() : uri, requester.getParameters());
-		} catch (Ice.UnknownException e) {
-			throw new Exception(e.unknown);
+		String uri = endpoint.getUri() == null ? requester.getUri() : endpoint.getUri();
+		Balancer balancer = this.getBalancer();
+		Set<Node> excludes = null;
+		Exception failure = null;
+		while (true) {
+			Node node = balancer.select(endpoint.getNodes(), excludes);
+			if (node == null) {
+				if (failure != null) {
+					throw failure;
+				}
+				throw new RuntimeException("No available node:" + endpoint);
+			}
+			NodeState state = Nodes.getState(node);
+			long start = state.begin();
+			try {
+				Object result = Remotes.invoke(Remotes.getProxy(node), requester.getToken(), uri,
+						requester.getParameters());
+				state.success(start);
+				return result;
+			} catch (Ice.UnknownException e) {
+				state.success(start);
+				throw new Exception(e.unknown);
+			} catch (Exception e) {
+				if (!this.isNodeFailure(e)) {
+					state.success(start);
+					throw e;
+				}
+				state.failure(start);
+				if (!this.isRetryable(e)) {
+					throw e;
+				}
+				failure = e;
+				if (excludes == null) {
+					excludes = new HashSet<Node>(endpoint.getNodes().length);
+				}
+				excludes.add(node);
+			}
 		}
 	}
 
+	@Override
+	public void execute(Requester requester, Resource resource, InvokeCallback callback) throws Exception {
+		new AsyncInvocation(requester, (Endpoint) resource, callback).next();
+	}
+
 }
@@ -3,10 +3,13 @@ package ars.invoke.remote;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Map;
+import java.util.List;
 import java.util.UUID;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -14,6 +17,12 @@ import java.util.LinkedList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import ars.util.Nfile;
 import ars.util.Beans;
@@ -21,6 +30,7 @@ import ars.util.Jsons;
 import ars.util.Strings;
 import ars.util.Streams;
 import ars.util.Servers;
+import ars.invoke.InvokeCallback;
 import ars.invoke.request.Token;
 import ars.invoke.remote.Node;
 import ars.invoke.remote.Protocol;
@@ -30,7 +40,7 @@ import ars.invoke.remote.slice.Istream;
 import ars.invoke.remote.slice.Istring;
 import ars.invoke.remote.slice.ResourcePrx;
 import ars.invoke.remote.slice.ResourcePrxHelper;
-import ars.invoke.remote.slice.Callback_Resource_download;
+import ars.invoke.remote.slice.Callback_Resource_invoke;
 
 /**
  * 基于ICE消息中间件远程操作工具类
@@ -39,6 +49,8 @@ import ars.invoke.remote.slice.Callback_Resource_download;
  * 
  */
 public final class Remotes {
+	private static final Logger logger = LoggerFactory.getLogger(Remotes.class);
+
 	/**
 	 * 通用对象适配器名称
 	 */
@@ -64,11 +76,46 @@ public final class Remotes {
 	 */
 	private static Map<String, String> configure;
 
+	/**
+	 * 文件下载并行数据块数量
+	 */
+	private static volatile int downloadConcurrency = 4;
+
+	/**
+	 * 文件下载数据块大小（字节）
+	 */
+	private static volatile int downloadChunkSize = Streams.DEFAULT_BUFFER_SIZE * 100;
+
+	/**
+	 * 文件下载数据块失败重试次数
+	 */
+	private static volatile int downloadRetries = 3;
+
+	/**
+	 * 文件下载进度记录刷盘间隔（数据块数量）
+	 */
+	private static final int DOWNLOAD_SYNC_INTERVAL = 16;
+
 	/**
 	 * ICE通信器
 	 */
 	private static Ice.Communicator communicator;
 
+	/**
+	 * 令牌属性缓存（属性JSON/只读属性映射），避免同一令牌在多次远程调用中重复解析属性
+	 */
+	private static final ConcurrentMap<String, Map<String, Object>> tokenAttributes = new ConcurrentHashMap<String, Map<String, Object>>();
+
+	/**
+	 * 远程资源代理缓存（代理字符串/已验证的远程资源代理）
+	 */
+	private static final ConcurrentMap<String, ResourcePrx> proxies = new ConcurrentHashMap<String, ResourcePrx>();
+
+	/**
+	 * 远程资源代理缓存（远程节点列表/已验证的远程资源代理），避免重复构建远程地址
+	 */
+	private static final ConcurrentMap<List<Node>, ResourcePrx> nodeProxies = new ConcurrentHashMap<List<Node>, ResourcePrx>();
+
 	private Remotes() {
 
 	}
@@ -157,6 +204,39 @@ public final class Remotes {
 		}
 	}
 
+	public static int getDownloadConcurrency() {
+		return downloadConcurrency;
+	}
+
+	public static void setDownloadConcurrency(int downloadConcurrency) {
+		if (downloadConcurrency < 1) {
+			throw new IllegalArgumentException("Illegal downloadConcurrency:" + downloadConcurrency);
+		}
+		Remotes.downloadConcurrency = downloadConcurrency;
+	}
+
+	public static int getDownloadChunkSize() {
+		return downloadChunkSize;
+	}
+
+	public static void setDownloadChunkSize(int downloadChunkSize) {
+		if (downloadChunkSize < 1) {
+			throw new IllegalArgumentException("Illegal downloadChunkSize:" + downloadChunkSize);
+		}
+		Remotes.downloadChunkSize = downloadChunkSize;
+	}
+
+	public static int getDownloadRetries() {
+		return downloadRetries;
+	}
+
+	public static void setDownloadRetries(int downloadRetries) {
+		if (downloadRetries < 0) {
+			throw new IllegalArgumentException("Illegal downloadRetries:" + downloadRetries);
+		}
+		Remotes.downloadRetries = downloadRetries;
+	}
+
 	/**
 	 * 获取ICE通信器
 	 * 
@@ -260,8 +340,21 @@ public final class Remotes {
 	 */
 	@SuppressWarnings("unchecked")
 	public static Token itoken2token(Itoken token) {
-		return token == null || Strings.isEmpty(token.code) ? null
-				: new Token(token.code, token.timeout, (Map<String, Object>) Jsons.parse(token.attributes));
+		if (token == null || Strings.isEmpty(token.code)) {
+			return null;
+		}
+		Map<String, Object> attributes = tokenAttributes.get(token.attributes);
+		if (attributes == null) {
+			attributes = Collections.unmodifiableMap((Map<String, Object>) Jsons.parse(token.attributes));
+			int size = Token.getCacheSize();
+			if (size > 0) {
+				if (tokenAttributes.size() >= size) {
+					tokenAttributes.clear();
+				}
+				tokenAttributes.put(token.attributes, attributes);
+			}
+		}
+		return new Token(token.code, token.timeout, new HashMap<String, Object>(attributes));
 	}
 
 	/**
@@ -346,7 +439,85 @@ public final class Remotes {
 	 * @return 远程调用代理对象
 	 */
 	public static Ice.ObjectPrx getProxy(Node... nodes) {
-		return getProxy(getAddress(nodes));
+		if (nodes == null || nodes.length == 0) {
+			throw new IllegalArgumentException("Illegal nodes:" + Strings.toString(nodes));
+		}
+		List<Node> key = Arrays.asList(nodes);
+		ResourcePrx proxy = nodeProxies.get(key);
+		if (proxy == null) {
+			proxy = cast(getProxy(getAddress(nodes)));
+			nodeProxies.put(Arrays.asList(nodes.clone()), proxy);
+		}
+		return proxy;
+	}
+
+	/**
+	 * 获取未经类型验证的远程资源代理，已缓存的代理直接返回，否则构建非检查转换的代理（不加入缓存），避免在异步调用过程中发起阻塞的类型验证请求
+	 * 
+	 * @param nodes
+	 *            远程节点数组
+	 * @return 远程调用代理对象
+	 */
+	public static Ice.ObjectPrx getUncheckedProxy(Node... nodes) {
+		if (nodes == null || nodes.length == 0) {
+			throw new IllegalArgumentException("Illegal nodes:" + Strings.toString(nodes));
+		}
+		ResourcePrx proxy = nodeProxies.get(Arrays.asList(nodes));
+		if (proxy != null) {
+			return proxy;
+		}
+		return ResourcePrxHelper.uncheckedCast(getProxy(getAddress(nodes)));
+	}
+
+	/**
+	 * 将远程调用代理转换成远程资源代理，相同代理仅在首次转换时进行类型验证，验证后的代理按代理字符串缓存
+	 * 
+	 * @param proxy
+	 *            远程调用代理
+	 * @return 远程资源代理
+	 */
+	private static ResourcePrx cast(Ice.ObjectPrx proxy) {
+		if (proxy instanceof ResourcePrx) {
+			return (ResourcePrx) proxy;
+		}
+		String key = proxy.toString();
+		ResourcePrx resource = proxies.get(key);
+		if (resource == null) {
+			resource = ResourcePrxHelper.checkedCast(proxy);
+			if (resource == null) {
+				throw new RuntimeException("Invalid remote resource:" + key);
+			}
+			ResourcePrx exists = proxies.putIfAbsent(key, resource);
+			if (exists != null) {
+				resource = exists;
+			}
+		}
+		return resource;
+	}
+
+	/**
+	 * 远程调用连接失败时移除缓存的远程资源代理，下次获取代理时将重新建立并验证
+	 * 
+	 * @param proxy
+	 *            远程调用代理
+	 * @param e
+	 *            远程调用异常
+	 */
+	private static void invalidate(Ice.ObjectPrx proxy, Throwable e) {
+		if (e instanceof Ice.SocketException || e instanceof Ice.TimeoutException) {
+			Iterator<ResourcePrx> iterator = proxies.values().iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next() == proxy) {
+					iterator.remove();
+				}
+			}
+			iterator = nodeProxies.values().iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next() == proxy) {
+					iterator.remove();
+				}
+			}
+		}
 	}
 
 	/**
@@ -428,7 +599,6 @@ public final class Remotes {
 	 * @throws Exception
 	 *             操作异常
 	 */
-	@SuppressWarnings("unchecked")
 	public static Object invoke(final Ice.ObjectPrx proxy, Token token, String uri, Map<String, Object> parameters)
 			throws Exception {
 		if (proxy == null) {
@@ -437,13 +607,128 @@ public final class Remotes {
 		if (uri == null) {
 			throw new IllegalArgumentException("Illegal uri:" + uri);
 		}
+		try {
+			uploadParameters(proxy, parameters);
+			ResourcePrx _proxy = cast(proxy);
+			return accept(_proxy, _proxy.invoke(getClient(), token2itoken(token), uri, Jsons.format(parameters)));
+		} catch (Ice.LocalException e) {
+			invalidate(proxy, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * 异步远程资源调用，调用结果通过回调对象通知，调用失败时结果为异常对象
+	 * 
+	 * 远程调用不占用当前线程；参数中包含文件时文件上传仍在当前线程中完成，调用结果（包括结果为流时的下载操作）在远程调用结果回调线程池中处理，不在ICE客户端线程中执行
+	 * 
+	 * @param proxy
+	 *            远程资源代理
+	 * @param token
+	 *            请求令牌
+	 * @param uri
+	 *            远程资源标识
+	 * @param parameters
+	 *            请求参数
+	 * @param callback
+	 *            调用结果回调对象
+	 * @throws Exception
+	 *             操作异常
+	 */
+	public static void invoke(final Ice.ObjectPrx proxy, Token token, String uri, Map<String, Object> parameters,
+			final InvokeCallback callback) throws Exception {
+		if (proxy == null) {
+			throw new IllegalArgumentException("Illegal proxy:" + proxy);
+		}
+		if (uri == null) {
+			throw new IllegalArgumentException("Illegal uri:" + uri);
+		}
+		if (callback == null) {
+			throw new IllegalArgumentException("Illegal callback:" + callback);
+		}
+		try {
+			uploadParameters(proxy, parameters);
+		} catch (Ice.LocalException e) {
+			invalidate(proxy, e);
+			throw e;
+		}
+		final ResourcePrx _proxy = proxy instanceof ResourcePrx ? (ResourcePrx) proxy
+				: ResourcePrxHelper.uncheckedCast(proxy);
+		_proxy.begin_invoke(getClient(), token2itoken(token), uri, Jsons.format(parameters),
+				new Callback_Resource_invoke() {
+
+					@Override
+					public void response(final Iresult iresult) {
+						dispatch(new Runnable() {
+
+							@Override
+							public void run() {
+								Object result;
+								try {
+									result = accept(_proxy, iresult);
+								} catch (Exception e) {
+									result = e;
+								}
+								callback.complete(result);
+							}
+
+						});
+					}
+
+					@Override
+					public void exception(final Ice.LocalException e) {
+						invalidate(proxy, e);
+						dispatch(new Runnable() {
+
+							@Override
+							public void run() {
+								callback.complete(e instanceof Ice.UnknownException ? new Exception(
+										((Ice.UnknownException) e).unknown) : e);
+							}
+
+						});
+					}
+
+				});
+	}
+
+	/**
+	 * 在远程调用结果回调线程池中执行回调处理，避免监听器、缓存刷新、会话提交及响应输出等操作占用ICE客户端线程（同步远程调用的响应同样依赖该线程）；线程池拒绝任务时在新线程中执行，保证回调不被丢弃
+	 * 
+	 * @param task
+	 *            回调处理任务
+	 */
+	private static void dispatch(Runnable task) {
+		try {
+			Servers.execute(Servers.EXECUTOR_CALLBACK, task);
+		} catch (RejectedExecutionException e) {
+			logger.warn("Remote callback executor is saturated, run callback in a new thread");
+			Thread thread = new Thread(task, "ars-callback-overflow");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * 上传请求参数中的文件，并将参数值替换为远程文件名称
+	 * 
+	 * @param proxy
+	 *            远程资源代理
+	 * @param parameters
+	 *            请求参数
+	 * @throws Exception
+	 *             操作异常
+	 */
+	@SuppressWarnings("unchecked")
+	private static void uploadParameters(final Ice.ObjectPrx proxy, Map<String, Object> parameters)
+			throws Exception {
 		if (parameters != null && !parameters.isEmpty()) {
 			for (Entry<String, Object> entry : parameters.entrySet()) {
 				final Object value = entry.getValue();
 				if (Beans.isEmpty(value)) {
 					continue;
 				} else if (value instanceof File) {
-					entry.setValue(Servers.submit(new Callable<String>() {
+					entry.setValue(Servers.submit(Servers.EXECUTOR_REMOTE, new Callable<String>() {
 
 						@Override
 						public String call() throws Exception {
@@ -452,7 +737,7 @@ public final class Remotes {
 
 					}).get());
 				} else if (value instanceof Nfile) {
-					entry.setValue(Servers.submit(new Callable<String>() {
+					entry.setValue(Servers.submit(Servers.EXECUTOR_REMOTE, new Callable<String>() {
 
 						@Override
 						public String call() throws Exception {
@@ -466,7 +751,7 @@ public final class Remotes {
 						for (int i = 0; i < array.length; i++) {
 							final Object item = array[i];
 							if (item instanceof File) {
-								array[i] = Servers.submit(new Callable<String>() {
+								array[i] = Servers.submit(Servers.EXECUTOR_REMOTE, new Callable<String>() {
 
 									@Override
 									public String call() throws Exception {
@@ -475,7 +760,7 @@ public final class Remotes {
 
 								}).get();
 							} else if (item instanceof Nfile) {
-								array[i] = Servers.submit(new Callable<String>() {
+								array[i] = Servers.submit(Servers.EXECUTOR_REMOTE, new Callable<String>() {
 
 									@Override
 									public String call() throws Exception {
@@ -494,7 +779,7 @@ public final class Remotes {
 							final Object item = iterator.next();
 							if (item instanceof File) {
 								iterator.remove();
-								collection.add(Servers.submit(new Callable<String>() {
+								collection.add(Servers.submit(Servers.EXECUTOR_REMOTE, new Callable<String>() {
 
 									@Override
 									public String call() throws Exception {
@@ -503,7 +788,7 @@ public final class Remotes {
 
 								}).get());
 							} else if (item instanceof Nfile) {
-								collection.add(Servers.submit(new Callable<String>() {
+								collection.add(Servers.submit(Servers.EXECUTOR_REMOTE, new Callable<String>() {
 
 									@Override
 									public String call() throws Exception {
@@ -518,14 +803,26 @@ public final class Remotes {
 				}
 			}
 		}
-		ResourcePrx _proxy = ResourcePrxHelper.checkedCast(proxy);
-		Iresult iresult = _proxy.invoke(getClient(), token2itoken(token), uri, Jsons.format(parameters));
+	}
+
+	/**
+	 * 接收远程调用结果
+	 * 
+	 * @param proxy
+	 *            远程资源代理
+	 * @param iresult
+	 *            远程调用结果
+	 * @return 调用结果
+	 * @throws Exception
+	 *             操作异常
+	 */
+	private static Object accept(ResourcePrx proxy, Iresult iresult) throws Exception {
 		if (iresult instanceof Istream) {
 			Istream istream = (Istream) iresult;
 			if (istream.file) {
 				return download(proxy, istream.id, istream.name, istream.size);
 			}
-			return _proxy.download(istream.id, 0, 0);
+			return proxy.download(istream.id, 0, 0);
 		}
 		return Jsons.parse(((Istring) iresult).json);
 	}
@@ -548,7 +845,7 @@ public final class Remotes {
 		if (file == null) {
 			throw new IllegalArgumentException("Illegal file:" + file);
 		}
-		ResourcePrx _proxy = ResourcePrxHelper.checkedCast(proxy);
+		ResourcePrx _proxy = cast(proxy);
 		byte[] buffer = new byte[Streams.DEFAULT_BUFFER_SIZE * 100];
 		LinkedList<Ice.AsyncResult> results = new LinkedList<Ice.AsyncResult>();
 		String name = new StringBuilder("upload-").append(UUID.randomUUID()).append('.').append(file.getName())
@@ -580,6 +877,8 @@ public final class Remotes {
 	/**
 	 * 文件下载
 	 * 
+	 * 文件标识仅在本次远程调用中有效，下载失败后无法再次续传，因此失败时删除临时文件及进度文件
+	 * 
 	 * @param proxy
 	 *            远程资源代理
 	 * @param id
@@ -593,65 +892,167 @@ public final class Remotes {
 	 *             IO操作异常
 	 */
 	public static File download(Ice.ObjectPrx proxy, String id, String name, long size) throws IOException {
+		if (name == null) {
+			throw new IllegalArgumentException("Illegal name:" + name);
+		}
+		File file = new File(getDirectory(),
+				new StringBuilder("download-").append(UUID.randomUUID()).append('.').append(name).toString());
+		boolean success = false;
+		try {
+			download(proxy, id, size, file);
+			success = true;
+		} finally {
+			if (!success) {
+				new File(file.getPath() + ".part").delete();
+				new File(file.getPath() + ".progress").delete();
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * 文件分块并行下载，各数据块通过文件通道按位置写入临时文件（目标文件名加“.part”后缀）
+	 * 
+	 * 已完成的数据块每隔一定数量（以及下载失败时）刷盘一次，随后在进度文件（目标文件名加“.progress”后缀）中记录完成状态，下载完成后将临时文件重命名为目标文件并删除进度文件；再次调用时仅跳过进度文件确认已完成的数据块，进度文件缺失或与文件大小、数据块大小不一致时重新下载；数据块因连接异常失败时将重试
+	 * 
+	 * @param proxy
+	 *            远程资源代理
+	 * @param id
+	 *            文件标识
+	 * @param size
+	 *            文件大小（字节）
+	 * @param file
+	 *            目标文件
+	 * @throws IOException
+	 *             IO操作异常
+	 */
+	public static void download(Ice.ObjectPrx proxy, String id, long size, File file) throws IOException {
 		if (proxy == null) {
 			throw new IllegalArgumentException("Illegal proxy:" + proxy);
 		}
 		if (id == null) {
 			throw new IllegalArgumentException("Illegal id:" + id);
 		}
-		if (name == null) {
-			throw new IllegalArgumentException("Illegal name:" + name);
-		}
-		if (size < 1) {
+		if (size < 1 || size > Integer.MAX_VALUE) {
 			throw new IllegalArgumentException("Illegal size:" + size);
 		}
-		final File file = new File(getDirectory(),
-				new StringBuilder("download-").append(UUID.randomUUID()).append('.').append(name).toString());
-		ResourcePrx _proxy = ResourcePrxHelper.checkedCast(proxy);
-		LinkedList<Ice.AsyncResult> results = new LinkedList<Ice.AsyncResult>();
-		Callback_Resource_download callback = new Callback_Resource_download() {
-
-			@Override
-			public void response(byte[] buffer) {
-				OutputStream output = null;
-				try {
-					output = new FileOutputStream(file, true);
-					output.write(buffer);
-				} catch (IOException e) {
-					throw new RuntimeException(e);
-				} finally {
+		if (file == null) {
+			throw new IllegalArgumentException("Illegal file:" + file);
+		}
+		ResourcePrx _proxy = cast(proxy);
+		int chunk = downloadChunkSize;
+		int count = (int) ((size + chunk - 1) / chunk);
+		File part = new File(file.getPath() + ".part");
+		File progress = new File(file.getPath() + ".progress");
+		byte[] bitmap = new byte[(count + 7) / 8];
+		int unsynced = 0;
+		boolean success = false;
+		RandomAccessFile record = new RandomAccessFile(progress, "rw");
+		try {
+			if (!part.exists() || record.length() != 12 + bitmap.length || record.readLong() != size
+					|| record.readInt() != chunk) {
+				record.setLength(0);
+				record.writeLong(size);
+				record.writeInt(chunk);
+				record.write(bitmap);
+				record.getFD().sync();
+				part.delete();
+			} else {
+				record.readFully(bitmap);
+			}
+			int[] attempts = new int[count];
+			LinkedList<Integer> pendings = new LinkedList<Integer>();
+			for (int i = 0; i < count; i++) {
+				if ((bitmap[i >> 3] & (1 << (i & 7))) == 0) {
+					pendings.add(i);
+				}
+			}
+			LinkedList<Integer> sendings = new LinkedList<Integer>();
+			Map<Integer, Ice.AsyncResult> results = new HashMap<Integer, Ice.AsyncResult>(downloadConcurrency);
+			RandomAccessFile access = new RandomAccessFile(part, "rw");
+			try {
+				FileChannel channel = access.getChannel();
+				while (!pendings.isEmpty() || !sendings.isEmpty()) {
+					while (!pendings.isEmpty() && sendings.size() < downloadConcurrency) {
+						Integer index = pendings.removeFirst();
+						long position = (long) index * chunk;
+						int length = (int) Math.min(chunk, size - position);
+						results.put(index, _proxy.begin_download(id, (int) position, length));
+						sendings.add(index);
+					}
+					Integer index = sendings.removeFirst();
+					long position = (long) index * chunk;
+					int length = (int) Math.min(chunk, size - position);
+					byte[] bytes;
 					try {
-						output.close();
-					} catch (IOException e) {
-						throw new RuntimeException(e);
+						bytes = _proxy.end_download(results.remove(index));
+						if (bytes.length != length) {
+							throw new IOException("Illegal chunk length:" + bytes.length + ", expected:" + length);
+						}
+					} catch (Exception e) {
+						if ((e instanceof Ice.SocketException || e instanceof Ice.TimeoutException
+								|| e instanceof IOException) && ++attempts[index] <= downloadRetries) {
+							pendings.addFirst(index);
+							continue;
+						}
+						if (e instanceof IOException) {
+							throw (IOException) e;
+						}
+						throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+					}
+					ByteBuffer buffer = ByteBuffer.wrap(bytes);
+					while (buffer.hasRemaining()) {
+						position += channel.write(buffer, position);
+					}
+					bitmap[index >> 3] |= 1 << (index & 7);
+					if (++unsynced >= DOWNLOAD_SYNC_INTERVAL) {
+						syncProgress(channel, record, bitmap);
+						unsynced = 0;
 					}
 				}
+				if (channel.size() != size) {
+					throw new IOException("Illegal file size:" + channel.size() + ", expected:" + size);
+				}
+				channel.force(false);
+				success = true;
+			} finally {
+				try {
+					if (!success && unsynced > 0) {
+						syncProgress(access.getChannel(), record, bitmap);
+					}
+				} finally {
+					access.close();
+				}
 			}
-
-			@Override
-			public void exception(Ice.LocalException e) {
-
-			}
-
-		};
-		int index = 0, length = Streams.DEFAULT_BUFFER_SIZE * 100;
-		while (index < size) {
-			Ice.AsyncResult result = _proxy.begin_download(id, index, length, callback);
-			result.waitForSent();
-			results.add(result);
-			if (results.size() > 3) {
-				Ice.AsyncResult first = results.removeFirst();
-				first.waitForCompleted();
-				first.throwLocalException();
-			}
-			index += length;
+		} finally {
+			record.close();
 		}
-		while (results.size() > 0) {
-			Ice.AsyncResult first = results.removeFirst();
-			first.waitForCompleted();
-			first.throwLocalException();
+		if (file.exists() && !file.delete()) {
+			throw new IOException("Unable to replace file:" + file);
 		}
-		return file;
+		if (!part.renameTo(file)) {
+			throw new IOException("Unable to rename file:" + part + " to " + file);
+		}
+		progress.delete();
+	}
+
+	/**
+	 * 将已写入的数据块刷盘后更新并刷盘下载进度记录，保证进度记录中确认完成的数据块均已持久化
+	 * 
+	 * @param channel
+	 *            下载数据文件通道
+	 * @param record
+	 *            下载进度记录文件
+	 * @param bitmap
+	 *            数据块完成状态位图
+	 * @throws IOException
+	 *             IO操作异常
+	 */
+	private static void syncProgress(FileChannel channel, RandomAccessFile record, byte[] bitmap) throws IOException {
+		channel.force(false);
+		record.seek(12);
+		record.write(bitmap);
+		record.getFD().sync();
 	}
 
 	/**
@@ -661,6 +1062,8 @@ public final class Remotes {
 		if (communicator != null) {
 			synchronized (Remotes.class) {
 				if (communicator != null) {
+					proxies.clear();
+					nodeProxies.clear();
 					communicator.shutdown();
 					communicator.destroy();
 					communicator = null;
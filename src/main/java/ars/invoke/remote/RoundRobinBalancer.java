@@ -0,0 +1,22 @@
+package ars.invoke.remote;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ars.invoke.remote.NodeState;
+import ars.invoke.remote.AbstractBalancer;
+
+/**
+ * 轮询负载均衡器
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class RoundRobinBalancer extends AbstractBalancer {
+	private final AtomicInteger counter = new AtomicInteger();
+
+	@Override
+	protected NodeState choose(NodeState[] states, int count) {
+		return states[(this.counter.getAndIncrement() & Integer.MAX_VALUE) % count];
+	}
+
+}
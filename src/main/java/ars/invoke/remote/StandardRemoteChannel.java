@@ -4,23 +4,32 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.util.Map;
 import java.util.UUID;
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.Collection;
 import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import ars.util.Nfile;
 import ars.util.Jsons;
 import ars.util.Streams;
 import ars.util.Strings;
-import ars.util.AbstractTimerServer;
+import ars.util.Servers;
+import ars.util.AbstractServer;
 import ars.invoke.Context;
 import ars.invoke.request.Requester;
 import ars.invoke.remote.RemoteChannel;
@@ -45,21 +54,130 @@ public class StandardRemoteChannel extends _ResourceDisp implements RemoteChanne
 	private static final Pattern UPLOAD_FILE_PATTERN = Pattern
 			.compile("upload-[0-9a-z]{8}-[0-9a-z]{4}-[0-9a-z]{4}-[0-9a-z]{4}-[0-9a-z]{12}..+");
 
+	/**
+	 * 默认数据流空闲超时时间（毫秒）
+	 */
+	public static final int DEFAULT_STREAM_TIMEOUT = 10000;
+
+	private static StreamReaper reaper; // 数据流空闲超时回收服务
+
 	private transient Context context;
-	private transient Map<String, StreamReader> streams = new HashMap<String, StreamReader>(0);
+	private int streamTimeout = DEFAULT_STREAM_TIMEOUT; // 数据流空闲超时时间（毫秒）
+	private final AtomicLong openedStreams = new AtomicLong(); // 已打开数据流数量
+	private final AtomicLong expiredStreams = new AtomicLong(); // 已超时回收数据流数量
+	private final AtomicLong servedBytes = new AtomicLong(); // 已发送字节数
+	private transient ConcurrentMap<String, StreamReader> streams = new ConcurrentHashMap<String, StreamReader>(); // 数据流标识/数据流映射
+
+	/**
+	 * 数据流空闲超时回收服务，所有通道的数据流共享同一个时间轮及后台线程
+	 * 
+	 * 数据流按空闲到期时间放入对应的时间槽，每个时间刻度处理一个时间槽：已到期的数据流被销毁，期间被访问过的数据流按新的到期时间重新放入时间槽
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	static class StreamReaper extends AbstractServer {
+		/**
+		 * 时间刻度（毫秒）
+		 */
+		public static final int TICK = 1000;
+
+		/**
+		 * 时间槽数量
+		 */
+		public static final int WHEEL_SIZE = 64;
+
+		private volatile long ticks = System.currentTimeMillis() / TICK; // 最后处理的时间刻度
+		private final AtomicReferenceArray<ConcurrentLinkedQueue<StreamReader>> wheel = new AtomicReferenceArray<ConcurrentLinkedQueue<StreamReader>>(
+				WHEEL_SIZE);
+
+		public StreamReaper() {
+			for (int i = 0; i < WHEEL_SIZE; i++) {
+				this.wheel.set(i, new ConcurrentLinkedQueue<StreamReader>());
+			}
+		}
+
+		/**
+		 * 按数据流空闲到期时间放入时间槽
+		 * 
+		 * @param stream
+		 *            数据流对象
+		 */
+		public void schedule(StreamReader stream) {
+			long deadline = stream.getDeadline();
+			long tick = Math.max((deadline + TICK - 1) / TICK, this.ticks + 1);
+			this.wheel.get((int) (tick % WHEEL_SIZE)).add(stream);
+		}
+
+		/**
+		 * 处理时间槽
+		 * 
+		 * @param tick
+		 *            时间刻度
+		 */
+		protected void expire(long tick) {
+			ConcurrentLinkedQueue<StreamReader> queue = this.wheel.getAndSet((int) (tick % WHEEL_SIZE),
+					new ConcurrentLinkedQueue<StreamReader>());
+			long now = System.currentTimeMillis();
+			StreamReader stream;
+			while ((stream = queue.poll()) != null) {
+				if (stream.isDestroied()) {
+					continue;
+				} else if (stream.getDeadline() > now) {
+					this.schedule(stream);
+					continue;
+				}
+				try {
+					stream.expire();
+				} catch (Exception e) {
+					logger.warn("Stream destroy failed: " + stream.id, e);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			while (!Thread.currentThread().isInterrupted()) {
+				try {
+					Thread.sleep(TICK - System.currentTimeMillis() % TICK);
+				} catch (InterruptedException e) {
+					break;
+				}
+				long current = System.currentTimeMillis() / TICK;
+				for (long tick = this.ticks + 1; tick <= current; tick++) {
+					this.ticks = tick;
+					this.expire(tick);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * 获取数据流空闲超时回收服务
+	 * 
+	 * @return 回收服务对象
+	 */
+	protected static synchronized StreamReaper getReaper() {
+		if (reaper == null || !reaper.isAlive()) {
+			reaper = new StreamReaper();
+			reaper.setDaemon(true);
+			reaper.start();
+		}
+		return reaper;
+	}
 
 	/**
 	 * 数据流读取抽象类
 	 * 
-	 * 如果数据流超过10秒为被读取则自动关闭并销毁
+	 * 如果数据流超过空闲超时时间未被读取则自动关闭并销毁
 	 * 
 	 * @author yongqiangwu
 	 * 
 	 */
 	abstract class StreamReader {
 		protected final String id;
-		protected final AbstractTimerServer timer;
-		private boolean destroied;
+		private volatile boolean destroied;
 		private volatile long timestamp = System.currentTimeMillis();
 
 		public StreamReader(String id) {
@@ -67,18 +185,6 @@ public class StandardRemoteChannel extends _ResourceDisp implements RemoteChanne
 				throw new IllegalArgumentException("Illegal id:" + id);
 			}
 			this.id = id;
-			this.timer = new AbstractTimerServer() {
-
-				@Override
-				protected void execute() throws Exception {
-					if (System.currentTimeMillis() - timestamp > 10000) {
-						StreamReader.this.destroy();
-					}
-				}
-
-			};
-			this.timer.setInterval(1);
-			this.timer.start();
 		}
 
 		/**
@@ -115,7 +221,40 @@ public class StandardRemoteChannel extends _ResourceDisp implements RemoteChanne
 		 */
 		public byte[] fetch(int index, int length) throws IOException {
 			this.timestamp = System.currentTimeMillis();
-			return this.read(index, length);
+			byte[] bytes = this.read(index, length);
+			servedBytes.addAndGet(bytes.length);
+			return bytes;
+		}
+
+		/**
+		 * 获取空闲到期时间
+		 * 
+		 * @return 到期时间（毫秒）
+		 */
+		public long getDeadline() {
+			return this.timestamp + streamTimeout;
+		}
+
+		/**
+		 * 判断数据流是否已销毁
+		 * 
+		 * @return true/false
+		 */
+		public boolean isDestroied() {
+			return this.destroied;
+		}
+
+		/**
+		 * 空闲超时销毁流对象
+		 * 
+		 * @throws IOException
+		 *             IO操作异常
+		 */
+		public void expire() throws IOException {
+			if (!this.destroied) {
+				expiredStreams.incrementAndGet();
+				this.destroy();
+			}
 		}
 
 		/**
@@ -132,8 +271,7 @@ public class StandardRemoteChannel extends _ResourceDisp implements RemoteChanne
 						try {
 							this.close();
 						} finally {
-							timer.stop();
-							streams.remove(id);
+							streams.remove(this.id, this);
 						}
 					}
 				}
@@ -145,49 +283,64 @@ public class StandardRemoteChannel extends _ResourceDisp implements RemoteChanne
 	/**
 	 * 文件流读取实现
 	 * 
+	 * 通过文件通道按位置读取数据，任意数据块均可并发、重复读取；数据流在空闲超时后关闭，临时文件在关闭时删除
+	 * 
 	 * @author yongqiangwu
 	 * 
 	 */
 	class FileStreamReader extends StreamReader {
+		protected final File file;
 		protected final long size;
-		protected final InputStream stream;
+		protected final boolean temporary;
+		protected final FileChannel channel;
+		private final RandomAccessFile access;
 
 		public FileStreamReader(String id, File file) throws IOException {
-			super(id);
-			if (file == null) {
-				throw new IllegalArgumentException("Illegal file:" + file);
-			}
-			this.size = file.length();
-			this.stream = new FileInputStream(file);
+			this(id, file, false);
 		}
 
-		public FileStreamReader(String id, Nfile file) throws IOException {
+		public FileStreamReader(String id, File file, boolean temporary) throws IOException {
 			super(id);
 			if (file == null) {
 				throw new IllegalArgumentException("Illegal file:" + file);
 			}
-			this.size = file.getSize();
-			this.stream = file.getInputStream();
+			this.file = file;
+			this.temporary = temporary;
+			this.access = new RandomAccessFile(file, "r");
+			this.channel = this.access.getChannel();
+			this.size = this.channel.size();
 		}
 
 		@Override
 		public byte[] read(int index, int length) throws IOException {
-			long unread = this.size - index;
-			boolean end = length >= unread;
-			byte[] buffer = new byte[end ? (int) unread : length];
-			try {
-				this.stream.read(buffer);
-				return buffer;
-			} finally {
-				if (end) {
-					this.destroy();
+			if (index < 0 || index > this.size) {
+				throw new IOException("Illegal index:" + index);
+			}
+			if (length < 1) {
+				throw new IOException("Illegal length:" + length);
+			}
+			byte[] bytes = new byte[(int) Math.min(length, this.size - index)];
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			long position = index;
+			while (buffer.hasRemaining()) {
+				int n = this.channel.read(buffer, position);
+				if (n < 0) {
+					throw new IOException("Unexpected end of file at:" + position);
 				}
+				position += n;
 			}
+			return bytes;
 		}
 
 		@Override
 		public void close() throws IOException {
-			this.stream.close();
+			try {
+				this.access.close();
+			} finally {
+				if (this.temporary) {
+					this.file.delete();
+				}
+			}
 		}
 	}
 
@@ -243,11 +396,17 @@ public class StandardRemoteChannel extends _ResourceDisp implements RemoteChanne
 
 		@Override
 		public byte[] read(int index, int length) throws IOException {
-			try {
-				return this.bytes;
-			} finally {
-				this.destroy();
+			if (length < 1) {
+				try {
+					return this.bytes;
+				} finally {
+					this.destroy();
+				}
+			}
+			if (index < 0 || index > this.bytes.length) {
+				throw new IOException("Illegal index:" + index);
 			}
+			return Arrays.copyOfRange(this.bytes, index, (int) Math.min((long) index + length, this.bytes.length));
 		}
 
 		@Override
@@ -290,6 +449,65 @@ public class StandardRemoteChannel extends _ResourceDisp implements RemoteChanne
 
 	}
 
+	/**
+	 * 注册数据流并加入空闲超时回收
+	 * 
+	 * @param stream
+	 *            数据流对象
+	 */
+	protected void register(StreamReader stream) {
+		this.streams.put(stream.id, stream);
+		this.openedStreams.incrementAndGet();
+		getReaper().schedule(stream);
+	}
+
+	public int getStreamTimeout() {
+		return streamTimeout;
+	}
+
+	public void setStreamTimeout(int streamTimeout) {
+		if (streamTimeout < 1) {
+			throw new IllegalArgumentException("Illegal streamTimeout:" + streamTimeout);
+		}
+		this.streamTimeout = streamTimeout;
+	}
+
+	/**
+	 * 获取当前打开的数据流数量
+	 * 
+	 * @return 数据流数量
+	 */
+	public int getOpenStreams() {
+		return this.streams.size();
+	}
+
+	/**
+	 * 获取累计打开的数据流数量
+	 * 
+	 * @return 数据流数量
+	 */
+	public long getOpenedStreams() {
+		return this.openedStreams.get();
+	}
+
+	/**
+	 * 获取累计因空闲超时回收的数据流数量
+	 * 
+	 * @return 数据流数量
+	 */
+	public long getExpiredStreams() {
+		return this.expiredStreams.get();
+	}
+
+	/**
+	 * 获取累计发送的数据流字节数
+	 * 
+	 * @return 字节数
+	 */
+	public long getServedBytes() {
+		return this.servedBytes.get();
+	}
+
 	/**
 	 * 根据请求参数JSON字符串获取请求参数键/值映射
 	 * 
@@ -378,7 +596,59 @@ public class StandardRemoteChannel extends _ResourceDisp implements RemoteChanne
 	}
 
 	@Override
-	public void invoke_async(AMD_Resource_invoke __cb, String client, Itoken token, String uri, String parameter,
+	public void invoke_async(final AMD_Resource_invoke __cb, final String client, final Itoken token,
+			final String uri, final String parameter, final Ice.Current __current) {
+		if (Servers.isVirtual()) {
+			Servers.execute(Servers.EXECUTOR_DISPATCH, new Runnable() {
+
+				@Override
+				public void run() {
+					invoke(__cb, client, token, uri, parameter, __current);
+				}
+
+			});
+		} else {
+			this.invoke(__cb, client, token, uri, parameter, __current);
+		}
+	}
+
+	/**
+	 * 将非本地文件的文件对象数据写入临时文件，避免将文件数据整体读入内存
+	 * 
+	 * @param file
+	 *            文件对象
+	 * @return 临时文件
+	 * @throws IOException
+	 *             IO操作异常
+	 */
+	protected File spool(Nfile file) throws IOException {
+		File temp = File.createTempFile("ars_stream_", ".tmp", new File(Remotes.getDirectory()));
+		try {
+			Streams.write(file, temp);
+		} catch (IOException e) {
+			temp.delete();
+			throw e;
+		}
+		return temp;
+	}
+
+	/**
+	 * 远程资源调用
+	 * 
+	 * @param __cb
+	 *            异步调用结果回调对象
+	 * @param client
+	 *            客户标识
+	 * @param token
+	 *            令牌对象
+	 * @param uri
+	 *            资源地址
+	 * @param parameter
+	 *            请求参数（JSON格式）
+	 * @param __current
+	 *            当前调用上下文
+	 */
+	protected void invoke(AMD_Resource_invoke __cb, String client, Itoken token, String uri, String parameter,
 			Ice.Current __current) {
 		try {
 			Requester requester = this.getRequester(client, token, uri, parameter, __current);
@@ -388,27 +658,38 @@ public class StandardRemoteChannel extends _ResourceDisp implements RemoteChanne
 			} else if (value instanceof File) {
 				File file = (File) value;
 				String id = UUID.randomUUID().toString();
-				this.streams.put(id, new FileStreamReader(id, file));
+				this.register(new FileStreamReader(id, file));
 				__cb.ice_response(new Istream(id, file.getName(), file.length(), true));
 			} else if (value instanceof Nfile) {
 				Nfile file = (Nfile) value;
 				String id = UUID.randomUUID().toString();
-				this.streams.put(id, new FileStreamReader(id, file));
-				__cb.ice_response(new Istream(id, file.getName(), file.getSize(), true));
+				if (file.isFile()) {
+					this.register(new FileStreamReader(id, file.getFile()));
+					__cb.ice_response(new Istream(id, file.getName(), file.getFile().length(), true));
+				} else {
+					File temp = this.spool(file);
+					try {
+						this.register(new FileStreamReader(id, temp, true));
+					} catch (IOException e) {
+						temp.delete();
+						throw e;
+					}
+					__cb.ice_response(new Istream(id, file.getName(), temp.length(), true));
+				}
 			} else if (value instanceof byte[]) {
 				byte[] bytes = (byte[]) value;
 				String id = UUID.randomUUID().toString();
-				this.streams.put(id, new ByteArrayStreamReader(id, bytes));
+				this.register(new ByteArrayStreamReader(id, bytes));
 				__cb.ice_response(new Istream(id, null, bytes.length, false));
 			} else if (value instanceof InputStream) {
 				InputStream stream = (InputStream) value;
 				String id = UUID.randomUUID().toString();
-				this.streams.put(id, new InputStreamReader(id, stream));
+				this.register(new InputStreamReader(id, stream));
 				__cb.ice_response(new Istream(id, null, stream.available(), false));
 			} else if (value instanceof ReadableByteChannel) {
 				ReadableByteChannel channel = (ReadableByteChannel) value;
 				String id = UUID.randomUUID().toString();
-				this.streams.put(id, new ByteChannelStreamReader(id, channel));
+				this.register(new ByteChannelStreamReader(id, channel));
 				__cb.ice_response(new Istream(id, null, 0, false));
 			} else {
 				__cb.ice_response(new Istring(Jsons.format(value)));
@@ -1,16 +1,28 @@
 package ars.invoke.request;
 
 import java.util.Set;
+import java.util.Map;
+import java.util.List;
 import java.util.HashSet;
+import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Map.Entry;
+import java.io.Flushable;
 
 import ars.util.Cache;
 import ars.util.SimpleCache;
+import ars.util.ConcurrentCache;
+import ars.invoke.request.Session;
+import ars.invoke.request.Requester;
+import ars.invoke.request.StandardRequester;
 import ars.invoke.request.SessionFactory;
 
 /**
  * 基于缓存的会话工厂实现
  * 
+ * 会话在首次访问时通过一次批量读取加载全部属性，请求处理过程中的属性修改仅记录在会话对象中，并在请求完成时通过一次批量写入提交；请求完成后的属性修改将直接写入缓存
+ * 
  * @author yongqiangwu
  *
  */
@@ -22,6 +34,8 @@ public class CacheSessionFactory implements SessionFactory {
 
 	protected final Cache cache;
 	protected final int timeout;
+	private volatile Cache local; // 本地会话快照缓存
+	private int localTimeout; // 本地会话快照缓存时间（秒）
 
 	public CacheSessionFactory() {
 		this(DEFAULT_TIMEOUT);
@@ -46,127 +60,278 @@ public class CacheSessionFactory implements SessionFactory {
 		this.timeout = timeout;
 	}
 
-	@Override
-	public Session getSession(final Requester requester) {
-		if (requester == null) {
-			throw new IllegalArgumentException("Illegal requester:" + requester);
+	public int getLocalTimeout() {
+		return localTimeout;
+	}
+
+	/**
+	 * 设置本地会话快照缓存时间，大于0时会话快照将在本地缓存指定时间，适用于读多写少且允许短暂不一致的会话
+	 * 
+	 * @param localTimeout
+	 *            本地会话快照缓存时间（秒）
+	 */
+	public void setLocalTimeout(int localTimeout) {
+		if (localTimeout < 0) {
+			throw new IllegalArgumentException("Illegal localTimeout:" + localTimeout);
 		}
-		return new Session() {
-			private Set<String> names; // 所有属性名称集合
-
-			/**
-			 * 获取缓存标识
-			 * 
-			 * @return 缓存标识
-			 */
-			private String key() {
-				return this.key(null);
-			}
-
-			/**
-			 * 获取属性名称缓存标识
-			 * 
-			 * @param name
-			 *            属性名称
-			 * @return 缓存标识
-			 */
-			private String key(String name) {
-				StringBuilder buffer = new StringBuilder();
-				if (name == null) {
-					buffer.append("session_").append(this.getId());
-				} else {
-					buffer.append("session_name_").append(this.getId()).append(name);
-				}
-				return buffer.toString();
+		synchronized (this) {
+			if (localTimeout > 0 && this.local == null) {
+				this.local = new ConcurrentCache();
+			} else if (localTimeout == 0 && this.local != null) {
+				this.local.destroy();
+				this.local = null;
 			}
+			this.localTimeout = localTimeout;
+		}
+	}
 
-			@SuppressWarnings("unchecked")
-			private void initializeNames() {
-				if (this.names == null) {
-					this.names = (Set<String>) cache.get(this.key());
-					if (this.names == null) {
-						this.names = new HashSet<String>(0);
-					}
-				}
-			}
+	/**
+	 * 本地会话快照，自加载时间起按绝对时间过期，读取时不延长过期时间
+	 * 
+	 * @author yongqiangwu
+	 *
+	 */
+	static class Snapshot {
+		public final long deadline; // 过期时间（毫秒）
+		public final Map<String, Object> attributes; // 属性名称/值映射
 
-			@Override
-			public String getId() {
-				return requester.getClient();
-			}
+		public Snapshot(Map<String, Object> attributes, int timeout) {
+			this.attributes = Collections.unmodifiableMap(new HashMap<String, Object>(attributes));
+			this.deadline = System.currentTimeMillis() + timeout * 1000L;
+		}
 
-			@Override
-			public int getTimeout() {
-				return timeout;
-			}
+		/**
+		 * 判断快照是否过期
+		 * 
+		 * @return true/false
+		 */
+		public boolean isExpired() {
+			return System.currentTimeMillis() >= this.deadline;
+		}
+	}
 
-			@Override
-			public SessionFactory getSessionFactory() {
-				return CacheSessionFactory.this;
-			}
+	/**
+	 * 基于缓存的会话实现
+	 * 
+	 * @author yongqiangwu
+	 *
+	 */
+	protected class CacheSession implements Session, Flushable {
+		protected final String id; // 会话标识
+		private boolean behind; // 是否延迟写入
+		private Map<String, Object> attributes; // 属性名称/值映射
+		private final Set<String> dirties = new HashSet<String>(0); // 已修改属性名称集合
+		private final Set<String> added = new HashSet<String>(0); // 新增属性名称集合
+		private final Set<String> removed = new HashSet<String>(0); // 已删除属性名称集合
 
-			@Override
-			public Set<String> getAttributeNames() {
-				this.initializeNames();
-				return Collections.unmodifiableSet(this.names);
+		public CacheSession(String id, boolean behind) {
+			if (id == null) {
+				throw new IllegalArgumentException("Illegal id:" + id);
 			}
+			this.id = id;
+			this.behind = behind;
+		}
 
-			@Override
-			public Object getAttribute(String name) {
-				if (name == null) {
-					throw new IllegalArgumentException("Illegal name:" + name);
-				}
-				return cache.get(this.key(name));
+		/**
+		 * 获取缓存标识
+		 * 
+		 * @return 缓存标识
+		 */
+		protected String key() {
+			return this.key(null);
+		}
+
+		/**
+		 * 获取属性名称缓存标识
+		 * 
+		 * @param name
+		 *            属性名称
+		 * @return 缓存标识
+		 */
+		protected String key(String name) {
+			StringBuilder buffer = new StringBuilder();
+			if (name == null) {
+				buffer.append("session_").append(this.id);
+			} else {
+				buffer.append("session_name_").append(this.id).append(name);
 			}
+			return buffer.toString();
+		}
 
-			@Override
-			public void setAttribute(String name, Object value) {
-				if (name == null) {
-					throw new IllegalArgumentException("Illegal name:" + name);
+		/**
+		 * 加载会话属性，本地快照未命中时先读取属性名称集合，再批量读取所有属性值
+		 */
+		@SuppressWarnings("unchecked")
+		protected void load() {
+			if (this.attributes != null) {
+				return;
+			}
+			Cache local = CacheSessionFactory.this.local;
+			Snapshot cached = local == null ? null : (Snapshot) local.get(this.key());
+			Map<String, Object> snapshot = cached == null || cached.isExpired() ? null : cached.attributes;
+			if (snapshot == null) {
+				Set<String> names = (Set<String>) cache.get(this.key());
+				if (names == null || names.isEmpty()) {
+					snapshot = new HashMap<String, Object>(0);
+				} else {
+					int i = 0;
+					String[] keys = new String[names.size()];
+					for (String name : names) {
+						keys[i++] = this.key(name);
+					}
+					Map<String, Object> values = cache.getAll(keys);
+					snapshot = new HashMap<String, Object>(names.size());
+					for (String name : names) {
+						snapshot.put(name, values.get(this.key(name)));
+					}
 				}
-				cache.set(this.key(name), value);
-				this.initializeNames();
-				if (this.names.add(name)) {
-					cache.set(this.key(), this.names);
+				if (local != null) {
+					local.set(this.key(), new Snapshot(snapshot, localTimeout), localTimeout);
 				}
 			}
+			this.attributes = new HashMap<String, Object>(snapshot);
+		}
 
-			@Override
-			public void removeAttribute(String name) {
-				if (name == null) {
-					throw new IllegalArgumentException("Illegal name:" + name);
-				}
-				cache.remove(this.key(name));
-				this.initializeNames();
-				if (this.names.remove(name)) {
-					cache.set(this.key(), this.names);
+		/**
+		 * 提交会话属性修改，删除的属性批量移除，修改的属性及属性名称集合批量写入；属性名称集合基于缓存中的最新值合并本次请求的新增和删除，避免并发请求相互覆盖
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public synchronized void flush() {
+			this.behind = false;
+			if (this.dirties.isEmpty()) {
+				return;
+			}
+			Map<String, Object> values = new HashMap<String, Object>(this.dirties.size() + 1);
+			List<String> removes = new ArrayList<String>(this.removed.size());
+			for (String name : this.dirties) {
+				if (this.attributes.containsKey(name)) {
+					values.put(this.key(name), this.attributes.get(name));
+				} else {
+					removes.add(this.key(name));
 				}
 			}
+			if (!removes.isEmpty()) {
+				cache.removeAll(removes.toArray(new String[removes.size()]));
+			}
+			if (!this.added.isEmpty() || !this.removed.isEmpty()) {
+				Set<String> current = (Set<String>) cache.get(this.key());
+				Set<String> names = current == null ? new HashSet<String>() : new HashSet<String>(current);
+				names.addAll(this.added);
+				names.removeAll(this.removed);
+				values.put(this.key(), names);
+			}
+			if (!values.isEmpty()) {
+				cache.setAll(values);
+			}
+			this.dirties.clear();
+			this.added.clear();
+			this.removed.clear();
+			Cache local = CacheSessionFactory.this.local;
+			if (local != null) {
+				local.set(this.key(), new Snapshot(this.attributes, localTimeout), localTimeout);
+			}
+		}
+
+		@Override
+		public String getId() {
+			return this.id;
+		}
+
+		@Override
+		public int getTimeout() {
+			return timeout;
+		}
+
+		@Override
+		public SessionFactory getSessionFactory() {
+			return CacheSessionFactory.this;
+		}
+
+		@Override
+		public synchronized Set<String> getAttributeNames() {
+			this.load();
+			return Collections.unmodifiableSet(new HashSet<String>(this.attributes.keySet()));
+		}
+
+		@Override
+		public synchronized Object getAttribute(String name) {
+			if (name == null) {
+				throw new IllegalArgumentException("Illegal name:" + name);
+			}
+			this.load();
+			return this.attributes.get(name);
+		}
+
+		@Override
+		public synchronized void setAttribute(String name, Object value) {
+			if (name == null) {
+				throw new IllegalArgumentException("Illegal name:" + name);
+			}
+			this.load();
+			if (!this.attributes.containsKey(name)) {
+				this.added.add(name);
+				this.removed.remove(name);
+			}
+			this.attributes.put(name, value);
+			this.dirties.add(name);
+			if (!this.behind) {
+				this.flush();
+			}
+		}
 
-			@Override
-			public String toString() {
-				this.initializeNames();
-				if (this.names.isEmpty()) {
-					return "{}";
+		@Override
+		public synchronized void removeAttribute(String name) {
+			if (name == null) {
+				throw new IllegalArgumentException("Illegal name:" + name);
+			}
+			this.load();
+			if (this.attributes.containsKey(name)) {
+				this.attributes.remove(name);
+				this.dirties.add(name);
+				this.added.remove(name);
+				this.removed.add(name);
+				if (!this.behind) {
+					this.flush();
 				}
-				int i = 0;
-				StringBuilder sb = new StringBuilder();
-				sb.append('{');
-				for (String name : this.names) {
-					if (i++ > 0) {
-						sb.append(", ");
-					}
-					sb.append(name).append('=').append(this.getAttribute(name));
+			}
+		}
+
+		@Override
+		public synchronized String toString() {
+			this.load();
+			if (this.attributes.isEmpty()) {
+				return "{}";
+			}
+			int i = 0;
+			StringBuilder sb = new StringBuilder();
+			sb.append('{');
+			for (Entry<String, Object> entry : this.attributes.entrySet()) {
+				if (i++ > 0) {
+					sb.append(", ");
 				}
-				return sb.append('}').toString();
+				sb.append(entry.getKey()).append('=').append(entry.getValue());
 			}
+			return sb.append('}').toString();
+		}
 
-		};
+	}
+
+	@Override
+	public Session getSession(Requester requester) {
+		if (requester == null) {
+			throw new IllegalArgumentException("Illegal requester:" + requester);
+		}
+		return new CacheSession(requester.getClient(), requester instanceof StandardRequester);
 	}
 
 	@Override
 	public void destroy() {
 		this.cache.destroy();
+		Cache local = this.local;
+		if (local != null) {
+			local.destroy();
+		}
 	}
 
 }
@@ -0,0 +1,17 @@
+package ars.invoke.request;
+
+/**
+ * 请求标识生成器
+ * 
+ * @author yongqiangwu
+ *
+ */
+public interface IdGenerator {
+	/**
+	 * 生成请求标识（唯一）
+	 * 
+	 * @return 请求标识
+	 */
+	public String generate();
+
+}
@@ -0,0 +1,80 @@
+package ars.invoke.request;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ars.invoke.request.IdGenerator;
+
+/**
+ * 基于时间序列的请求标识生成器
+ * 
+ * 请求标识由16位十六进制时间序列（高位为毫秒时间戳，低20位为毫秒内计数）和8位十六进制节点标识组成，同一节点生成的标识严格递增，可按字典顺序排序；时间序列通过CAS递增，无需加锁及随机数计算
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class SequenceIdGenerator implements IdGenerator {
+	/**
+	 * 毫秒内计数位数
+	 */
+	private static final int SEQUENCE_BITS = 20;
+
+	/**
+	 * 十六进制字符
+	 */
+	private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+	private final int node; // 节点标识
+	private final AtomicLong sequence = new AtomicLong(); // 时间序列
+
+	public SequenceIdGenerator() {
+		this(new SecureRandom().nextInt());
+	}
+
+	public SequenceIdGenerator(int node) {
+		this.node = node;
+	}
+
+	/**
+	 * 获取节点标识
+	 * 
+	 * @return 节点标识
+	 */
+	public int getNode() {
+		return this.node;
+	}
+
+	/**
+	 * 获取下一个时间序列，时钟回拨时沿用上一个时间序列继续递增
+	 * 
+	 * @return 时间序列
+	 */
+	protected long next() {
+		long timestamp = System.currentTimeMillis() << SEQUENCE_BITS;
+		while (true) {
+			long last = this.sequence.get();
+			long next = timestamp > last ? timestamp : last + 1;
+			if (this.sequence.compareAndSet(last, next)) {
+				return next;
+			}
+		}
+	}
+
+	@Override
+	public String generate() {
+		long sequence = this.next();
+		char[] chars = new char[25];
+		for (int i = 15; i >= 0; i--) {
+			chars[i] = DIGITS[(int) (sequence & 0xf)];
+			sequence >>>= 4;
+		}
+		chars[16] = '-';
+		int node = this.node;
+		for (int i = 24; i > 16; i--) {
+			chars[i] = DIGITS[node & 0xf];
+			node >>>= 4;
+		}
+		return new String(chars);
+	}
+
+}
@@ -3,9 +3,10 @@ package ars.invoke.request;
 import java.util.Set;
 import java.util.Map;
 import java.util.Date;
-import java.util.UUID;
 import java.util.Locale;
 import java.util.Collections;
+import java.io.Flushable;
+import java.io.IOException;
 
 import ars.util.Strings;
 import ars.invoke.Router;
@@ -14,6 +15,8 @@ import ars.invoke.Context;
 import ars.invoke.Messager;
 import ars.invoke.request.Token;
 import ars.invoke.request.Requester;
+import ars.invoke.request.IdGenerator;
+import ars.invoke.request.SequenceIdGenerator;
 
 /**
  * 请求对象标准实现
@@ -24,7 +27,10 @@ import ars.invoke.request.Requester;
 public class StandardRequester implements Requester {
 	private static final long serialVersionUID = 1L;
 
+	private static volatile IdGenerator idGenerator = new SequenceIdGenerator(); // 请求标识生成器
+
 	private String id; // 请求标识
+	private String trace; // 调用链标识（根请求标识）
 	private String uri; // 资源地址
 	private String host; // 客户主机
 	private Token token; // 请求令牌
@@ -32,6 +38,7 @@ public class StandardRequester implements Requester {
 	private String client; // 客户端标识
 	private Requester parent; // 父级请求对象
 	private transient Channel channel; // 请求通道
+	private transient volatile Session session; // 请求会话
 	private Map<String, Object> parameters; // 请求参数
 	private Date created = new Date(); // 请求时间
 
@@ -55,7 +62,9 @@ public class StandardRequester implements Requester {
 		if (parameters == null) {
 			throw new IllegalArgumentException("Illegal parameters:" + parameters);
 		}
-		this.id = UUID.randomUUID().toString();
+		this.id = idGenerator.generate();
+		this.trace = parent == null ? this.id
+				: parent instanceof StandardRequester ? ((StandardRequester) parent).getTrace() : parent.getId();
 		this.uri = uri;
 		this.host = host;
 		this.token = token;
@@ -66,6 +75,37 @@ public class StandardRequester implements Requester {
 		this.parameters = Collections.unmodifiableMap(parameters);
 	}
 
+	/**
+	 * 获取请求标识生成器
+	 * 
+	 * @return 请求标识生成器
+	 */
+	public static IdGenerator getIdGenerator() {
+		return idGenerator;
+	}
+
+	/**
+	 * 设置请求标识生成器
+	 * 
+	 * @param idGenerator
+	 *            请求标识生成器
+	 */
+	public static void setIdGenerator(IdGenerator idGenerator) {
+		if (idGenerator == null) {
+			throw new IllegalArgumentException("Illegal idGenerator:" + idGenerator);
+		}
+		StandardRequester.idGenerator = idGenerator;
+	}
+
+	/**
+	 * 获取调用链标识，即根请求的请求标识，嵌套请求继承父级请求的调用链标识
+	 * 
+	 * @return 调用链标识
+	 */
+	public String getTrace() {
+		return this.trace;
+	}
+
 	@Override
 	public Channel getChannel() {
 		return this.channel;
@@ -78,7 +118,30 @@ public class StandardRequester implements Requester {
 
 	@Override
 	public Session getSession() {
-		return this.channel.getContext().getSessionFactory().getSession(this);
+		if (this.parent != null && this.client.equals(this.parent.getClient())) {
+			return this.parent.getSession();
+		}
+		if (this.session == null) {
+			synchronized (this) {
+				if (this.session == null) {
+					this.session = this.channel.getContext().getSessionFactory().getSession(this);
+				}
+			}
+		}
+		return this.session;
+	}
+
+	/**
+	 * 提交当前请求会话中延迟写入的属性，会话未被访问或会话不支持延迟写入时不做任何处理
+	 * 
+	 * @throws IOException
+	 *             IO操作异常
+	 */
+	public void flushSession() throws IOException {
+		Session session = this.session;
+		if (session instanceof Flushable) {
+			((Flushable) session).flush();
+		}
 	}
 
 	@Override
@@ -7,6 +7,9 @@ import java.util.HashMap;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.security.Key;
 import java.io.Serializable;
 
@@ -41,6 +44,11 @@ public class Token implements Map<String, Object>, Formable, Serializable {
 	 */
 	public static final String TIMEOUT = "timeout";
 
+	/**
+	 * 默认已验证令牌缓存数量
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 10000;
+
 	private static final long serialVersionUID = 1L;
 
 	/**
@@ -48,6 +56,13 @@ public class Token implements Map<String, Object>, Formable, Serializable {
 	 */
 	private static final byte[] SECRET = DatatypeConverter.parseBase64Binary("!@#json$%^web&*(token)");
 
+	/**
+	 * 已验证令牌缓存（令牌标识/验证结果映射），避免同一令牌在有效期内重复进行签名验证及解析
+	 */
+	private static final ConcurrentMap<String, Verified> verifieds = new ConcurrentHashMap<String, Verified>();
+
+	private static volatile int cacheSize = DEFAULT_CACHE_SIZE; // 已验证令牌缓存数量
+
 	private String code; // 令牌标识
 	private int timeout; // 过期时间（秒）
 	private boolean valid; // 是否有效
@@ -89,6 +104,95 @@ public class Token implements Map<String, Object>, Formable, Serializable {
 		this.attributes = attributes;
 	}
 
+	/**
+	 * 令牌验证结果
+	 * 
+	 * @author yongqiangwu
+	 *
+	 */
+	static class Verified {
+		public final int timeout; // 过期时间
+		public final long expiration; // 到期时间戳（毫秒）
+		public final Map<String, Object> attributes; // 令牌属性（只读）
+
+		public Verified(int timeout, long expiration, Map<String, Object> attributes) {
+			this.timeout = timeout;
+			this.expiration = expiration;
+			this.attributes = attributes;
+		}
+
+	}
+
+	/**
+	 * 获取已验证令牌缓存数量
+	 * 
+	 * @return 缓存数量
+	 */
+	public static int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * 设置已验证令牌缓存数量，小于1时禁用缓存
+	 * 
+	 * @param cacheSize
+	 *            缓存数量
+	 */
+	public static void setCacheSize(int cacheSize) {
+		Token.cacheSize = cacheSize;
+		if (cacheSize < 1) {
+			verifieds.clear();
+		}
+	}
+
+	/**
+	 * 清空已验证令牌缓存
+	 */
+	public static void clearCache() {
+		verifieds.clear();
+	}
+
+	/**
+	 * 验证令牌签名并解析令牌属性，验证结果将被缓存至令牌到期
+	 * 
+	 * @param code
+	 *            令牌标识
+	 * @return 令牌验证结果
+	 */
+	private static Verified verify(String code) {
+		Verified verified = verifieds.get(code);
+		if (verified != null) {
+			if (verified.expiration > System.currentTimeMillis()) {
+				return verified;
+			}
+			verifieds.remove(code, verified);
+		}
+		Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(code).getBody();
+		Date released = claims.getIssuedAt();
+		Date expiration = claims.getExpiration();
+		int timeout = released == null || expiration == null ? 0
+				: (int) (expiration.getTime() - released.getTime());
+		verified = new Verified(timeout, expiration == null ? Long.MAX_VALUE : expiration.getTime(),
+				Collections.unmodifiableMap(new HashMap<String, Object>(claims)));
+		int size = cacheSize;
+		if (size > 0) {
+			if (verifieds.size() >= size) {
+				long now = System.currentTimeMillis();
+				Iterator<Verified> iterator = verifieds.values().iterator();
+				while (iterator.hasNext()) {
+					if (iterator.next().expiration <= now) {
+						iterator.remove();
+					}
+				}
+				if (verifieds.size() >= size) {
+					verifieds.clear();
+				}
+			}
+			verifieds.put(code, verified);
+		}
+		return verified;
+	}
+
 	/**
 	 * 解析令牌
 	 * 
@@ -100,9 +204,8 @@ public class Token implements Map<String, Object>, Formable, Serializable {
 		if (code == null) {
 			throw new IllegalArgumentException("Illegal code:" + code);
 		}
-		Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(code).getBody();
-		int timeout = (int) (claims.getExpiration().getTime() - claims.getIssuedAt().getTime());
-		return new Token(code, timeout, claims);
+		Verified verified = verify(code);
+		return new Token(code, verified.timeout, new HashMap<String, Object>(verified.attributes));
 	}
 
 	/**
@@ -189,7 +292,7 @@ public class Token implements Map<String, Object>, Formable, Serializable {
 	public void validate() throws TokenInvalidException {
 		if (!this.valid) {
 			try {
-				this.attributes = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(this.code).getBody();
+				this.attributes = new HashMap<String, Object>(verify(this.code).attributes);
 			} catch (ExpiredJwtException e) {
 				throw new TokenInvalidException("error.token.expired");
 			} catch (Exception e) {
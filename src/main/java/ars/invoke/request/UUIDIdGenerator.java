@@ -0,0 +1,20 @@
+package ars.invoke.request;
+
+import java.util.UUID;
+
+import ars.invoke.request.IdGenerator;
+
+/**
+ * UUID请求标识生成器
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class UUIDIdGenerator implements IdGenerator {
+
+	@Override
+	public String generate() {
+		return UUID.randomUUID().toString();
+	}
+
+}
@@ -36,11 +36,17 @@ import ars.invoke.StandardRouter;
 import ars.invoke.local.Api;
 import ars.invoke.local.Apis;
 import ars.invoke.local.Function;
+import ars.invoke.local.Accessor;
+import ars.invoke.local.ReflectAccessor;
 import ars.invoke.local.LocalInvoker;
 import ars.invoke.event.InvokeEvent;
 import ars.invoke.event.InvokeListener;
+import ars.invoke.request.Token;
+import ars.invoke.request.IdGenerator;
+import ars.invoke.request.StandardRequester;
 import ars.invoke.request.SessionFactory;
 import ars.invoke.request.CacheSessionFactory;
+import ars.spring.context.FastClassAccessor;
 
 /**
  * 应用上下文配置
@@ -53,6 +59,7 @@ public class ApplicationContextConfiguration extends StandardRouter implements C
 	private String pattern; // 资源地址匹配模式
 	private Invoker invoker; // 资源调用对象
 	private Messager messager; // 消息处理对象
+	private boolean compiled = true; // 是否使用字节码生成的方法调用对象
 	private SessionFactory sessionFactory; // 会话工厂
 	private ApplicationContext applicationContext; // 应用上下文对象
 	private boolean initialized, destroied; // Spring容器启动/销毁标记
@@ -73,6 +80,14 @@ public class ApplicationContextConfiguration extends StandardRouter implements C
 		this.invoker = invoker;
 	}
 
+	public boolean isCompiled() {
+		return compiled;
+	}
+
+	public void setCompiled(boolean compiled) {
+		this.compiled = compiled;
+	}
+
 	public void setSessionFactory(SessionFactory sessionFactory) {
 		this.sessionFactory = sessionFactory;
 	}
@@ -81,6 +96,24 @@ public class ApplicationContextConfiguration extends StandardRouter implements C
 		Servers.setExecutor(executor);
 	}
 
+	public void setExecutors(Map<String, ExecutorService> executors) {
+		for (Entry<String, ExecutorService> entry : executors.entrySet()) {
+			Servers.setExecutor(entry.getKey(), entry.getValue());
+		}
+	}
+
+	public void setVirtual(boolean virtual) {
+		Servers.setVirtual(virtual);
+	}
+
+	public void setTokenCacheSize(int size) {
+		Token.setCacheSize(size);
+	}
+
+	public void setIdGenerator(IdGenerator idGenerator) {
+		StandardRequester.setIdGenerator(idGenerator);
+	}
+
 	public void setDatePattern(String pattern) {
 		Dates.setDatePattern(pattern);
 	}
@@ -136,8 +169,10 @@ public class ApplicationContextConfiguration extends StandardRouter implements C
 							String api = Strings.replace(new StringBuilder(classApi).append('/').append(methodApi),
 									"//", "/");
 							if (this.pattern == null || Strings.matches(api, this.pattern)) {
+								Accessor accessor = this.compiled ? FastClassAccessor.build(method)
+										: new ReflectAccessor(method);
 								this.register(api, this.invoker,
-										new Function(entity, method, Apis.getConditions(method)));
+										new Function(entity, method, accessor, Apis.getConditions(method)));
 							}
 						}
 					}
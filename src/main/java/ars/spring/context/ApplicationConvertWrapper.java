@@ -1,11 +1,15 @@
 package ars.spring.context;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 
 import ars.invoke.convert.Converter;
 import ars.invoke.convert.JsonConverter;
+import ars.invoke.convert.StreamSerializer;
 import ars.invoke.convert.ThrowableResolver;
 import ars.invoke.convert.StandardConvertWrapper;
 
@@ -15,7 +19,7 @@ import ars.invoke.convert.StandardConvertWrapper;
  * @author yongqiangwu
  * 
  */
-public class ApplicationConvertWrapper implements Converter, ApplicationContextAware {
+public class ApplicationConvertWrapper implements Converter, StreamSerializer, ApplicationContextAware {
 	protected Converter converter;
 
 	public ApplicationConvertWrapper() {
@@ -41,6 +45,18 @@ public class ApplicationConvertWrapper implements Converter, ApplicationContextA
 		return this.converter.serialize(object);
 	}
 
+	@Override
+	public void serialize(Object object, OutputStream output) throws IOException {
+		if (this.converter instanceof StreamSerializer) {
+			((StreamSerializer) this.converter).serialize(object, output);
+		} else {
+			String content = this.converter.serialize(object);
+			if (content != null) {
+				output.write(content.getBytes());
+			}
+		}
+	}
+
 	@Override
 	public Object deserialize(String string) {
 		return this.converter.deserialize(string);
@@ -0,0 +1,71 @@
+package ars.spring.context;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.InvocationTargetException;
+
+import org.springframework.cglib.reflect.FastClass;
+
+import ars.invoke.local.Accessor;
+import ars.invoke.local.ReflectAccessor;
+
+/**
+ * 基于字节码生成的方法调用实现，通过方法索引直接调用目标方法，避免反射调用开销
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class FastClassAccessor implements Accessor {
+	protected final int index; // 方法索引
+	protected final FastClass fastClass; // 字节码生成的类调用对象
+
+	public FastClassAccessor(FastClass fastClass, Method method) {
+		if (fastClass == null) {
+			throw new IllegalArgumentException("Illegal fastClass:" + fastClass);
+		}
+		if (method == null) {
+			throw new IllegalArgumentException("Illegal method:" + method);
+		}
+		this.index = fastClass.getIndex(method.getName(), method.getParameterTypes());
+		if (this.index < 0) {
+			throw new IllegalArgumentException("Illegal method:" + method);
+		}
+		this.fastClass = fastClass;
+	}
+
+	/**
+	 * 构建方法调用对象，方法或所属类不可公开访问或字节码生成失败时使用反射调用实现
+	 * 
+	 * @param method
+	 *            目标方法对象
+	 * @return 方法调用对象
+	 */
+	public static Accessor build(Method method) {
+		if (method == null) {
+			throw new IllegalArgumentException("Illegal method:" + method);
+		}
+		Class<?> type = method.getDeclaringClass();
+		if (Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(type.getModifiers())) {
+			try {
+				return new FastClassAccessor(FastClass.create(type), method);
+			} catch (RuntimeException e) {
+			} catch (LinkageError e) {
+			}
+		}
+		return new ReflectAccessor(method);
+	}
+
+	@Override
+	public Object invoke(Object target, Object[] parameters) throws Exception {
+		try {
+			return this.fastClass.invoke(this.index, target, parameters);
+		} catch (InvocationTargetException e) {
+			Throwable error = e.getTargetException();
+			if (error instanceof Exception) {
+				throw (Exception) error;
+			}
+			throw new Exception(error);
+		}
+	}
+
+}
@@ -5,7 +5,9 @@ import java.util.Map;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.ContextRefreshedEvent;
 
+import ars.invoke.remote.Nodes;
 import ars.invoke.remote.Remotes;
+import ars.invoke.remote.Balancer;
 import ars.spring.context.ApplicationListener;
 
 /**
@@ -32,6 +34,38 @@ public class RemoteApplicationConfiguration extends ApplicationListener {
 		Remotes.setCommunicator(communicator);
 	}
 
+	public void setDownloadConcurrency(int downloadConcurrency) {
+		Remotes.setDownloadConcurrency(downloadConcurrency);
+	}
+
+	public void setDownloadChunkSize(int downloadChunkSize) {
+		Remotes.setDownloadChunkSize(downloadChunkSize);
+	}
+
+	public void setDownloadRetries(int downloadRetries) {
+		Remotes.setDownloadRetries(downloadRetries);
+	}
+
+	public void setBalancer(Balancer balancer) {
+		Nodes.setBalancer(balancer);
+	}
+
+	public void setFailureThreshold(int failureThreshold) {
+		Nodes.setFailureThreshold(failureThreshold);
+	}
+
+	public void setRecoveryTimeout(int recoveryTimeout) {
+		Nodes.setRecoveryTimeout(recoveryTimeout);
+	}
+
+	public void setCheckTimeout(int checkTimeout) {
+		Nodes.setCheckTimeout(checkTimeout);
+	}
+
+	public void setCheckInterval(int checkInterval) {
+		Nodes.setCheckInterval(checkInterval);
+	}
+
 	@Override
 	protected void initialize(ContextRefreshedEvent event) {
 
@@ -40,6 +74,7 @@ public class RemoteApplicationConfiguration extends ApplicationListener {
 	@Override
 	protected void destroy(ContextClosedEvent event) {
 		Remotes.destroy();
+		Nodes.destroy();
 	}
 
 }
@@ -0,0 +1,264 @@
+package ars.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+import javax.management.MBeanServer;
+
+import ars.util.BoundedExecutorMBean;
+
+/**
+ * 有界命名线程池实现
+ * 
+ * 线程数及任务队列长度均有上限，队列已满且线程数达到上限时按拒绝策略处理新任务，并统计活动线程、等待任务、拒绝任务及任务执行时间等指标
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class BoundedExecutor extends ThreadPoolExecutor implements BoundedExecutorMBean {
+	/**
+	 * 任务拒绝策略
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	public enum Policy {
+		/**
+		 * 抛出RejectedExecutionException异常
+		 */
+		ABORT,
+
+		/**
+		 * 在提交任务的线程中直接执行
+		 */
+		CALLER_RUNS,
+
+		/**
+		 * 丢弃新任务
+		 */
+		DISCARD,
+
+		/**
+		 * 丢弃队列中最早的任务后重新提交
+		 */
+		DISCARD_OLDEST;
+
+	}
+
+	/**
+	 * 空闲线程存活时间（秒）
+	 */
+	public static final int DEFAULT_KEEP_ALIVE = 60;
+
+	private final String name; // 线程池名称
+	private final int queueCapacity; // 任务队列容量
+	private final AtomicLong rejected = new AtomicLong(); // 被拒绝任务数
+	private final AtomicLong taskTime = new AtomicLong(); // 任务累计执行时间（纳秒）
+	private final AtomicLong taskCount = new AtomicLong(); // 已统计执行时间的任务数
+	private final AtomicLong maxTaskTime = new AtomicLong(); // 任务最大执行时间（纳秒）
+	private final ThreadLocal<Long> starts = new ThreadLocal<Long>(); // 任务开始时间
+	private ObjectName objectName; // JMX对象名称
+
+	public BoundedExecutor(String name, int coreSize, int maxSize, int queueCapacity) {
+		this(name, coreSize, maxSize, queueCapacity, Policy.CALLER_RUNS);
+	}
+
+	public BoundedExecutor(String name, int coreSize, int maxSize, int queueCapacity, Policy policy) {
+		super(coreSize, maxSize, DEFAULT_KEEP_ALIVE, TimeUnit.SECONDS, getQueue(queueCapacity),
+				new NamedThreadFactory(name));
+		if (name == null) {
+			throw new IllegalArgumentException("Illegal name:" + name);
+		}
+		if (policy == null) {
+			throw new IllegalArgumentException("Illegal policy:" + policy);
+		}
+		this.name = name;
+		this.queueCapacity = queueCapacity;
+		this.allowCoreThreadTimeOut(true);
+		this.setRejectedExecutionHandler(new CountingRejectedHandler(getRejectedHandler(policy)));
+	}
+
+	/**
+	 * 命名线程工厂，线程名称为线程池名称加序号，且均为守护线程
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	static class NamedThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger sequence = new AtomicInteger();
+
+		public NamedThreadFactory(String name) {
+			this.prefix = new StringBuilder("ars-").append(name).append('-').toString();
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, this.prefix + this.sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+	/**
+	 * 统计拒绝任务数的任务拒绝处理器
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	class CountingRejectedHandler implements RejectedExecutionHandler {
+		private final RejectedExecutionHandler handler;
+
+		public CountingRejectedHandler(RejectedExecutionHandler handler) {
+			this.handler = handler;
+		}
+
+		@Override
+		public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+			rejected.incrementAndGet();
+			this.handler.rejectedExecution(runnable, executor);
+		}
+
+	}
+
+	/**
+	 * 根据队列容量获取任务队列，容量为0时任务直接交由线程执行
+	 * 
+	 * @param capacity
+	 *            队列容量
+	 * @return 任务队列
+	 */
+	private static BlockingQueue<Runnable> getQueue(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Illegal capacity:" + capacity);
+		}
+		return capacity == 0 ? new SynchronousQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(capacity);
+	}
+
+	/**
+	 * 获取任务拒绝处理器
+	 * 
+	 * @param policy
+	 *            任务拒绝策略
+	 * @return 任务拒绝处理器
+	 */
+	private static RejectedExecutionHandler getRejectedHandler(Policy policy) {
+		if (policy == Policy.CALLER_RUNS) {
+			return new ThreadPoolExecutor.CallerRunsPolicy();
+		} else if (policy == Policy.DISCARD) {
+			return new ThreadPoolExecutor.DiscardPolicy();
+		} else if (policy == Policy.DISCARD_OLDEST) {
+			return new ThreadPoolExecutor.DiscardOldestPolicy();
+		}
+		return new ThreadPoolExecutor.AbortPolicy();
+	}
+
+	/**
+	 * 将线程池监控指标注册到JMX平台服务，名称为ars:type=Executor,name=线程池名称
+	 */
+	public void register() {
+		try {
+			ObjectName objectName = new ObjectName("ars:type=Executor,name=" + ObjectName.quote(this.name));
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (!server.isRegistered(objectName)) {
+				server.registerMBean(this, objectName);
+				this.objectName = objectName;
+			}
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * 从JMX平台服务中注销线程池监控指标
+	 */
+	public void unregister() {
+		if (this.objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+			} catch (Exception e) {
+			} finally {
+				this.objectName = null;
+			}
+		}
+	}
+
+	@Override
+	protected void beforeExecute(Thread thread, Runnable runnable) {
+		super.beforeExecute(thread, runnable);
+		this.starts.set(System.nanoTime());
+	}
+
+	@Override
+	protected void afterExecute(Runnable runnable, Throwable throwable) {
+		try {
+			Long start = this.starts.get();
+			if (start != null) {
+				long time = System.nanoTime() - start;
+				this.taskTime.addAndGet(time);
+				this.taskCount.incrementAndGet();
+				long max;
+				while (time > (max = this.maxTaskTime.get()) && !this.maxTaskTime.compareAndSet(max, time)) {
+				}
+				this.starts.remove();
+			}
+		} finally {
+			super.afterExecute(runnable, throwable);
+		}
+	}
+
+	@Override
+	protected void terminated() {
+		this.unregister();
+		super.terminated();
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public int getQueuedCount() {
+		return this.getQueue().size();
+	}
+
+	@Override
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	@Override
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+
+	@Override
+	public double getAverageTaskTime() {
+		long count = this.taskCount.get();
+		return count == 0 ? 0 : this.taskTime.get() / 1000000d / count;
+	}
+
+	@Override
+	public double getMaxTaskTime() {
+		return this.maxTaskTime.get() / 1000000d;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder(this.name).append("[active=").append(this.getActiveCount()).append(", queued=")
+				.append(this.getQueuedCount()).append(", rejected=").append(this.getRejectedCount())
+				.append(", completed=").append(this.getCompletedTaskCount()).append(']').toString();
+	}
+
+}
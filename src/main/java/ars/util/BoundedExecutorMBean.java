@@ -0,0 +1,87 @@
+package ars.util;
+
+/**
+ * 有界线程池监控接口
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public interface BoundedExecutorMBean {
+	/**
+	 * 获取线程池名称
+	 * 
+	 * @return 线程池名称
+	 */
+	public String getName();
+
+	/**
+	 * 获取核心线程数
+	 * 
+	 * @return 核心线程数
+	 */
+	public int getCorePoolSize();
+
+	/**
+	 * 获取最大线程数
+	 * 
+	 * @return 最大线程数
+	 */
+	public int getMaximumPoolSize();
+
+	/**
+	 * 获取当前线程数
+	 * 
+	 * @return 当前线程数
+	 */
+	public int getPoolSize();
+
+	/**
+	 * 获取正在执行任务的线程数
+	 * 
+	 * @return 活动线程数
+	 */
+	public int getActiveCount();
+
+	/**
+	 * 获取等待执行的任务数
+	 * 
+	 * @return 等待任务数
+	 */
+	public int getQueuedCount();
+
+	/**
+	 * 获取任务队列容量
+	 * 
+	 * @return 队列容量
+	 */
+	public int getQueueCapacity();
+
+	/**
+	 * 获取已完成任务数
+	 * 
+	 * @return 已完成任务数
+	 */
+	public long getCompletedTaskCount();
+
+	/**
+	 * 获取被拒绝任务数
+	 * 
+	 * @return 被拒绝任务数
+	 */
+	public long getRejectedCount();
+
+	/**
+	 * 获取任务平均执行时间（毫秒）
+	 * 
+	 * @return 平均执行时间
+	 */
+	public double getAverageTaskTime();
+
+	/**
+	 * 获取任务最大执行时间（毫秒）
+	 * 
+	 * @return 最大执行时间
+	 */
+	public double getMaxTaskTime();
+
+}
@@ -1,5 +1,7 @@
 package ars.util;
 
+import java.util.Map;
+
 /**
  * 数据缓存接口
  * 
@@ -16,6 +18,15 @@ public interface Cache {
 	 */
 	public Object get(String key);
 
+	/**
+	 * 批量获取缓存值
+	 * 
+	 * @param keys
+	 *            缓存标识数组
+	 * @return 缓存标识/缓存值映射（不包含不存在的缓存标识）
+	 */
+	public Map<String, Object> getAll(String... keys);
+
 	/**
 	 * 设置缓存值
 	 * 
@@ -38,6 +49,24 @@ public interface Cache {
 	 */
 	public void set(String key, Object value, int timeout);
 
+	/**
+	 * 批量设置缓存值
+	 * 
+	 * @param values
+	 *            缓存标识/缓存值映射
+	 */
+	public void setAll(Map<String, Object> values);
+
+	/**
+	 * 批量设置缓存值
+	 * 
+	 * @param values
+	 *            缓存标识/缓存值映射
+	 * @param timeout
+	 *            超时时间（秒）
+	 */
+	public void setAll(Map<String, Object> values, int timeout);
+
 	/**
 	 * 移除缓存
 	 * 
@@ -46,6 +75,14 @@ public interface Cache {
 	 */
 	public void remove(String key);
 
+	/**
+	 * 批量移除缓存
+	 * 
+	 * @param keys
+	 *            缓存标识数组
+	 */
+	public void removeAll(String... keys);
+
 	/**
 	 * 判断缓存标识是否存在
 	 * 
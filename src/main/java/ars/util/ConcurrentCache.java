@@ -0,0 +1,604 @@
+package ars.util;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.HashMap;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Iterator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import ars.util.Cache;
+import ars.util.Server;
+import ars.util.Strings;
+import ars.util.AbstractTimerServer;
+
+/**
+ * 基于分段并发映射的有界数据缓存实现
+ * 
+ * 缓存值按标识散列到多个分段，每个分段使用分段LRU（试用区/保护区）策略在超出容量时淘汰数据；过期数据由时间轮每秒清理（所有缓存实例共用一个清理线程），读取时也会检查过期；
+ * 形如“前缀*”的移除规则通过有序标识索引按前缀删除，其他通配规则按Strings.matches逐一匹配
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class ConcurrentCache implements Cache {
+	/**
+	 * 默认缓存容量（权重）
+	 */
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	/**
+	 * 默认并发分段数量
+	 */
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	/**
+	 * 时间轮槽数量（每秒一格）
+	 */
+	private static final int WHEEL_SIZE = 64;
+
+	/**
+	 * 保护区容量占比（百分比）
+	 */
+	private static final int PROTECTED_PERCENT = 80;
+
+	/**
+	 * 未销毁的缓存实例集合
+	 */
+	private static final Set<ConcurrentCache> caches = Collections
+			.newSetFromMap(new ConcurrentHashMap<ConcurrentCache, Boolean>());
+
+	/**
+	 * 共享数据清理服务
+	 */
+	private static final Server cleaner = initializeCleanupServer();
+
+	private volatile boolean destroyed;
+	private long cursor = System.currentTimeMillis() / 1000; // 时间轮当前刻度（秒）
+	private final int mask; // 分段掩码
+	private final Weigher weigher; // 缓存值权重计算接口
+	private final Segment[] segments; // 缓存分段数组
+	private final Queue<ValueWrapper>[] wheel; // 过期时间轮
+	private final ConcurrentSkipListSet<String> keys = new ConcurrentSkipListSet<String>(); // 缓存标识有序索引
+	private final ConcurrentMap<String, ValueWrapper> values = new ConcurrentHashMap<String, ValueWrapper>();
+
+	public ConcurrentCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public ConcurrentCache(long capacity) {
+		this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	public ConcurrentCache(long capacity, int concurrencyLevel) {
+		this(capacity, concurrencyLevel, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	public ConcurrentCache(long capacity, int concurrencyLevel, Weigher weigher) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Illegal capacity:" + capacity);
+		}
+		if (concurrencyLevel < 1) {
+			throw new IllegalArgumentException("Illegal concurrencyLevel:" + concurrencyLevel);
+		}
+		int size = 1;
+		while (size < concurrencyLevel) {
+			size <<= 1;
+		}
+		this.mask = size - 1;
+		this.weigher = weigher;
+		this.segments = new Segment[size];
+		long quota = Math.max(1, (capacity + size - 1) / size);
+		for (int i = 0; i < size; i++) {
+			this.segments[i] = new Segment(quota);
+		}
+		this.wheel = new Queue[WHEEL_SIZE];
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			this.wheel[i] = new ConcurrentLinkedQueue<ValueWrapper>();
+		}
+		synchronized (ConcurrentCache.class) {
+			caches.add(this);
+			cleaner.start();
+		}
+	}
+
+	/**
+	 * 缓存值权重计算接口
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	public static interface Weigher {
+		/**
+		 * 计算缓存值权重
+		 * 
+		 * @param key
+		 *            缓存标识
+		 * @param value
+		 *            缓存值
+		 * @return 权重（大于0）
+		 */
+		public int weigh(String key, Object value);
+
+	}
+
+	/**
+	 * 缓存值包装类
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	class ValueWrapper {
+		public final String key; // 缓存标识
+		public final Object value; // 缓存值
+		public final int weight; // 权重
+		public final int timeout; // 超时时间（秒）
+		public volatile boolean removed; // 是否已移除
+		public volatile long timestamp = System.currentTimeMillis(); // 时间戳（毫秒）
+
+		public ValueWrapper(String key, Object value, int weight, int timeout) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.timeout = timeout;
+		}
+
+		/**
+		 * 获取过期时间（毫秒）
+		 * 
+		 * @return 过期时间
+		 */
+		public long getDeadline() {
+			return this.timestamp + this.timeout * 1000L;
+		}
+
+		/**
+		 * 判断缓存值是否过期
+		 * 
+		 * @return true/false
+		 */
+		public boolean isExpired() {
+			return this.timeout > 0 && System.currentTimeMillis() >= this.getDeadline();
+		}
+	}
+
+	/**
+	 * 缓存分段（分段LRU：新数据进入试用区，再次访问后晋升到保护区，淘汰时优先淘汰试用区最久未访问数据）
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	class Segment extends ReentrantLock {
+		private static final long serialVersionUID = 1L;
+
+		private long weight; // 当前总权重
+		private long protectedWeight; // 保护区权重
+		private final long capacity; // 分段容量
+		private final long protectedCapacity; // 保护区容量
+		private final LinkedHashMap<String, ValueWrapper> probation = new LinkedHashMap<String, ValueWrapper>(16,
+				0.75f, true); // 试用区
+		private final LinkedHashMap<String, ValueWrapper> protecteds = new LinkedHashMap<String, ValueWrapper>(16,
+				0.75f, true); // 保护区
+
+		public Segment(long capacity) {
+			this.capacity = capacity;
+			this.protectedCapacity = capacity * PROTECTED_PERCENT / 100;
+		}
+
+		/**
+		 * 记录缓存值访问（需持有分段锁）
+		 * 
+		 * @param wrapper
+		 *            缓存值包装对象
+		 */
+		public void touch(ValueWrapper wrapper) {
+			if (this.protecteds.get(wrapper.key) == wrapper) {
+				return;
+			}
+			if (this.probation.get(wrapper.key) == wrapper) {
+				this.probation.remove(wrapper.key);
+				this.protecteds.put(wrapper.key, wrapper);
+				this.protectedWeight += wrapper.weight;
+				Iterator<ValueWrapper> iterator = this.protecteds.values().iterator();
+				while (this.protectedWeight > this.protectedCapacity && iterator.hasNext()) {
+					ValueWrapper eldest = iterator.next();
+					if (eldest == wrapper) {
+						break;
+					}
+					iterator.remove();
+					this.protectedWeight -= eldest.weight;
+					this.probation.put(eldest.key, eldest);
+				}
+			}
+		}
+
+		/**
+		 * 添加缓存值（需持有分段锁）
+		 * 
+		 * @param wrapper
+		 *            缓存值包装对象
+		 */
+		public void add(ValueWrapper wrapper) {
+			this.probation.put(wrapper.key, wrapper);
+			this.weight += wrapper.weight;
+			while (this.weight > this.capacity) {
+				Iterator<ValueWrapper> iterator = this.probation.isEmpty() ? this.protecteds.values().iterator()
+						: this.probation.values().iterator();
+				if (!iterator.hasNext()) {
+					break;
+				}
+				ValueWrapper eldest = iterator.next();
+				this.unlink(eldest);
+				values.remove(eldest.key, eldest);
+				keys.remove(eldest.key);
+			}
+		}
+
+		/**
+		 * 删除缓存值（需持有分段锁）
+		 * 
+		 * @param wrapper
+		 *            缓存值包装对象
+		 */
+		public void unlink(ValueWrapper wrapper) {
+			wrapper.removed = true;
+			if (this.probation.get(wrapper.key) == wrapper) {
+				this.probation.remove(wrapper.key);
+				this.weight -= wrapper.weight;
+			} else if (this.protecteds.get(wrapper.key) == wrapper) {
+				this.protecteds.remove(wrapper.key);
+				this.weight -= wrapper.weight;
+				this.protectedWeight -= wrapper.weight;
+			}
+		}
+
+		/**
+		 * 清空分段数据（需持有分段锁）
+		 */
+		public void clear() {
+			this.clear(this.probation);
+			this.clear(this.protecteds);
+			this.weight = 0;
+			this.protectedWeight = 0;
+		}
+
+		/**
+		 * 清空缓存区数据
+		 * 
+		 * @param region
+		 *            缓存区
+		 */
+		private void clear(Map<String, ValueWrapper> region) {
+			for (ValueWrapper wrapper : region.values()) {
+				wrapper.removed = true;
+				values.remove(wrapper.key, wrapper);
+				keys.remove(wrapper.key);
+			}
+			region.clear();
+		}
+
+	}
+
+	/**
+	 * 初始化共享数据清理服务，每秒依次推进所有缓存实例的过期时间轮
+	 * 
+	 * @return 服务对象
+	 */
+	private static Server initializeCleanupServer() {
+		AbstractTimerServer server = new AbstractTimerServer() {
+
+			@Override
+			protected void execute() throws Exception {
+				for (ConcurrentCache cache : caches) {
+					try {
+						cache.cleanup();
+					} catch (RuntimeException e) {
+						logger.error("Cache cleanup failed", e);
+					}
+				}
+			}
+
+		};
+		server.setInterval(1);
+		server.setDaemon(true);
+		return server;
+	}
+
+	/**
+	 * 推进过期时间轮至当前时间，移除已过期的缓存值（仅由共享数据清理服务调用）
+	 */
+	protected void cleanup() {
+		long now = System.currentTimeMillis() / 1000;
+		while (this.cursor <= now) {
+			Queue<ValueWrapper> slot = this.wheel[(int) (this.cursor % WHEEL_SIZE)];
+			for (int i = slot.size(); i > 0; i--) {
+				ValueWrapper wrapper = slot.poll();
+				if (wrapper == null) {
+					break;
+				}
+				if (wrapper.removed) {
+					continue;
+				} else if (wrapper.isExpired()) {
+					this.evict(wrapper);
+				} else {
+					this.schedule(wrapper, this.cursor + 1);
+				}
+			}
+			this.cursor++;
+		}
+	}
+
+	/**
+	 * 获取缓存标识所在分段
+	 * 
+	 * @param key
+	 *            缓存标识
+	 * @return 缓存分段
+	 */
+	protected Segment segment(String key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return this.segments[hash & this.mask];
+	}
+
+	/**
+	 * 将缓存值放入过期时间轮
+	 * 
+	 * @param wrapper
+	 *            缓存值包装对象
+	 * @param earliest
+	 *            最早刻度（秒）
+	 */
+	protected void schedule(ValueWrapper wrapper, long earliest) {
+		long tick = Math.max(wrapper.getDeadline() / 1000 + 1, earliest);
+		this.wheel[(int) (tick % WHEEL_SIZE)].offer(wrapper);
+	}
+
+	/**
+	 * 移除已过期或被淘汰的缓存值
+	 * 
+	 * @param wrapper
+	 *            缓存值包装对象
+	 */
+	protected void evict(ValueWrapper wrapper) {
+		Segment segment = this.segment(wrapper.key);
+		segment.lock();
+		try {
+			if (this.values.remove(wrapper.key, wrapper)) {
+				this.keys.remove(wrapper.key);
+			}
+			segment.unlink(wrapper);
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	/**
+	 * 移除指定标识的缓存值
+	 * 
+	 * @param key
+	 *            缓存标识
+	 */
+	protected void delete(String key) {
+		Segment segment = this.segment(key);
+		segment.lock();
+		try {
+			ValueWrapper wrapper = this.values.remove(key);
+			if (wrapper != null) {
+				this.keys.remove(key);
+				segment.unlink(wrapper);
+			}
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	/**
+	 * 判断缓存标识是否为通配规则
+	 * 
+	 * @param key
+	 *            缓存标识
+	 * @return true/false
+	 */
+	private boolean isPattern(String key) {
+		return key.isEmpty() || key.charAt(0) == '-' || key.indexOf('*') > -1 || key.indexOf(',') > -1;
+	}
+
+	/**
+	 * 获取当前缓存数量
+	 * 
+	 * @return 缓存数量
+	 */
+	public int size() {
+		return this.values.size();
+	}
+
+	@Override
+	public Object get(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Illegal key:" + key);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		ValueWrapper wrapper = this.values.get(key);
+		if (wrapper == null) {
+			return null;
+		} else if (wrapper.isExpired()) {
+			this.evict(wrapper);
+			return null;
+		}
+		wrapper.timestamp = System.currentTimeMillis();
+		Segment segment = this.segment(key);
+		if (segment.tryLock()) {
+			try {
+				segment.touch(wrapper);
+			} finally {
+				segment.unlock();
+			}
+		}
+		return wrapper.value;
+	}
+
+	@Override
+	public Map<String, Object> getAll(String... keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("Illegal keys:" + keys);
+		}
+		Map<String, Object> values = new HashMap<String, Object>(keys.length);
+		for (String key : keys) {
+			Object value = this.get(key);
+			if (value != null || this.values.containsKey(key)) {
+				values.put(key, value);
+			}
+		}
+		return values;
+	}
+
+	@Override
+	public void set(String key, Object value) {
+		this.set(key, value, 0);
+	}
+
+	@Override
+	public void setAll(Map<String, Object> values) {
+		this.setAll(values, 0);
+	}
+
+	@Override
+	public void setAll(Map<String, Object> values, int timeout) {
+		if (values == null) {
+			throw new IllegalArgumentException("Illegal values:" + values);
+		}
+		for (Entry<String, Object> entry : values.entrySet()) {
+			this.set(entry.getKey(), entry.getValue(), timeout);
+		}
+	}
+
+	@Override
+	public void set(String key, Object value, int timeout) {
+		if (key == null) {
+			throw new IllegalArgumentException("Illegal key:" + key);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		int weight = this.weigher == null ? 1 : this.weigher.weigh(key, value);
+		if (weight < 1) {
+			throw new IllegalArgumentException("Illegal weight:" + weight);
+		}
+		ValueWrapper wrapper = new ValueWrapper(key, value, weight, timeout);
+		Segment segment = this.segment(key);
+		segment.lock();
+		try {
+			ValueWrapper old = this.values.put(key, wrapper);
+			if (old != null) {
+				segment.unlink(old);
+			}
+			this.keys.add(key);
+			segment.add(wrapper);
+		} finally {
+			segment.unlock();
+		}
+		if (timeout > 0 && !wrapper.removed) {
+			this.schedule(wrapper, 0);
+		}
+	}
+
+	/**
+	 * 移除缓存
+	 * 
+	 * 不包含通配符时按标识精确移除；形如“前缀*”的规则按前缀移除；其他规则按Strings.matches匹配移除
+	 * 
+	 * @param key
+	 *            缓存标识或通配规则
+	 */
+	@Override
+	public void remove(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Illegal key:" + key);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		if (!this.isPattern(key)) {
+			this.delete(key);
+			return;
+		}
+		String prefix = key.substring(0, key.length() - 1);
+		if (key.charAt(key.length() - 1) == '*' && !prefix.isEmpty() && !this.isPattern(prefix)) {
+			for (String k : this.keys.subSet(prefix, true, prefix + Character.MAX_VALUE, true)) {
+				this.delete(k);
+			}
+		} else {
+			for (String k : this.keys) {
+				if (Strings.matches(k, key)) {
+					this.delete(k);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void removeAll(String... keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("Illegal keys:" + keys);
+		}
+		for (String key : keys) {
+			this.remove(key);
+		}
+	}
+
+	@Override
+	public boolean exists(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Illegal key:" + key);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		ValueWrapper wrapper = this.values.get(key);
+		return wrapper != null && !wrapper.isExpired();
+	}
+
+	@Override
+	public void clear() {
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		for (Segment segment : this.segments) {
+			segment.lock();
+			try {
+				segment.clear();
+			} finally {
+				segment.unlock();
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (!this.destroyed) {
+			synchronized (this) {
+				if (!this.destroyed) {
+					synchronized (ConcurrentCache.class) {
+						caches.remove(this);
+						if (caches.isEmpty()) {
+							cleaner.stop();
+						}
+					}
+					this.destroyed = true;
+				}
+			}
+		}
+	}
+
+}
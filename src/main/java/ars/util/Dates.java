@@ -115,7 +115,12 @@ public final class Dates {
 				}
 			}
 		}
-		return threadDateFormat.get();
+		DateFormat format = threadDateFormat.get();
+		if (format == null) {
+			format = new SimpleDateFormat(getDatePattern());
+			threadDateFormat.set(format);
+		}
+		return format;
 	}
 
 	/**
@@ -134,7 +139,12 @@ public final class Dates {
 				}
 			}
 		}
-		return threadDatetimeFormat.get();
+		DateFormat format = threadDatetimeFormat.get();
+		if (format == null) {
+			format = new SimpleDateFormat(getDatetimePattern());
+			threadDatetimeFormat.set(format);
+		}
+		return format;
 	}
 
 	/**
@@ -153,7 +163,12 @@ public final class Dates {
 				}
 			}
 		}
-		return threadDatenanoFormat.get();
+		DateFormat format = threadDatenanoFormat.get();
+		if (format == null) {
+			format = new SimpleDateFormat(getDatenanoPattern());
+			threadDatenanoFormat.set(format);
+		}
+		return format;
 	}
 
 	/**
@@ -0,0 +1,159 @@
+package ars.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁对数线性直方图
+ * 
+ * 小于64的数值每个数值一个桶，更大的数值按2的幂次分段且每段均分为32个桶，相对误差不超过1/32；记录操作仅使用原子计数，不加锁
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class Histogram {
+	/**
+	 * 线性区间上限
+	 */
+	private static final int LINEAR = 64;
+
+	/**
+	 * 每个幂次区间的桶数量（2的5次幂）
+	 */
+	private static final int SUB_BITS = 5;
+
+	/**
+	 * 可记录的最大幂次
+	 */
+	private static final int MAX_EXPONENT = 40;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(LINEAR + (MAX_EXPONENT - SUB_BITS) * (1 << SUB_BITS));
+	private final AtomicLong count = new AtomicLong(); // 记录次数
+	private final AtomicLong sum = new AtomicLong(); // 数值总和
+	private final AtomicLong max = new AtomicLong(); // 最大值
+
+	/**
+	 * 获取数值所在桶的位置
+	 * 
+	 * @param value
+	 *            数值
+	 * @return 桶位置
+	 */
+	private int index(long value) {
+		if (value < LINEAR) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent >= MAX_EXPONENT) {
+			return this.buckets.length() - 1;
+		}
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+		return LINEAR + ((exponent - SUB_BITS - 1) << SUB_BITS) + sub;
+	}
+
+	/**
+	 * 获取桶内的最大数值
+	 * 
+	 * @param index
+	 *            桶位置
+	 * @return 最大数值
+	 */
+	private long upper(int index) {
+		if (index < LINEAR) {
+			return index;
+		}
+		int exponent = ((index - LINEAR) >> SUB_BITS) + SUB_BITS + 1;
+		long sub = (index - LINEAR) & ((1 << SUB_BITS) - 1);
+		return (1L << exponent) + ((sub + 1) << (exponent - SUB_BITS)) - 1;
+	}
+
+	/**
+	 * 记录数值
+	 * 
+	 * @param value
+	 *            数值（小于0时按0记录）
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		this.buckets.incrementAndGet(this.index(value));
+		this.count.incrementAndGet();
+		this.sum.addAndGet(value);
+		long current;
+		while (value > (current = this.max.get()) && !this.max.compareAndSet(current, value)) {
+		}
+	}
+
+	/**
+	 * 获取记录次数
+	 * 
+	 * @return 记录次数
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+
+	/**
+	 * 获取最大值
+	 * 
+	 * @return 最大值
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * 获取平均值
+	 * 
+	 * @return 平均值
+	 */
+	public double getMean() {
+		long count = this.count.get();
+		return count == 0 ? 0 : (double) this.sum.get() / count;
+	}
+
+	/**
+	 * 获取百分位数值
+	 * 
+	 * @param percentile
+	 *            百分位（0-100）
+	 * @return 数值（所在桶的最大数值，且不超过记录的最大值）
+	 */
+	public long getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Illegal percentile:" + percentile);
+		}
+		long total = 0;
+		int length = this.buckets.length();
+		long[] counts = new long[length];
+		for (int i = 0; i < length; i++) {
+			total += counts[i] = this.buckets.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long accumulate = 0;
+		for (int i = 0; i < length; i++) {
+			accumulate += counts[i];
+			if (accumulate >= target) {
+				return Math.min(this.upper(i), this.max.get());
+			}
+		}
+		return this.max.get();
+	}
+
+	/**
+	 * 清空记录
+	 */
+	public void reset() {
+		for (int i = 0; i < this.buckets.length(); i++) {
+			this.buckets.set(i, 0);
+		}
+		this.count.set(0);
+		this.sum.set(0);
+		this.max.set(0);
+	}
+
+}
@@ -1,9 +1,16 @@
 package ars.util;
 
 import java.util.Map;
+import java.util.List;
+import java.util.ArrayList;
 import java.util.Map.Entry;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.io.Writer;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 
@@ -29,7 +36,8 @@ import ars.util.ObjectAdapter;
 public final class Jsons {
 	private static Gson defaultGson;
 	private static ObjectAdapter[] objectAdapters;
-	private static final GsonBuilder gsonBuilder = new GsonBuilder();
+	private static final ConcurrentMap<Integer, Gson> gsons = new ConcurrentHashMap<Integer, Gson>(); // 对象属性下钻深度/json处理对象映射
+	private static final ConcurrentMap<Class<?>, Field[]> fields = new ConcurrentHashMap<Class<?>, Field[]>(); // 对象类型/序列化字段映射
 
 	private Jsons() {
 
@@ -60,6 +68,36 @@ public final class Jsons {
 		}
 	}
 
+	/**
+	 * 获取对象序列化字段（包含父类的非静态字段，按类型缓存且只设置一次访问权限）
+	 * 
+	 * @param type
+	 *            对象类型
+	 * @return 字段数组
+	 */
+	private static Field[] getSerializeFields(Class<?> type) {
+		Field[] serializes = fields.get(type);
+		if (serializes == null) {
+			List<Field> list = new ArrayList<Field>();
+			Class<?> current = type;
+			while (current != null && current != Object.class) {
+				for (Field field : current.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						field.setAccessible(true);
+						list.add(field);
+					}
+				}
+				current = current.getSuperclass();
+			}
+			serializes = list.toArray(new Field[0]);
+			Field[] exists = fields.putIfAbsent(type, serializes);
+			if (exists != null) {
+				serializes = exists;
+			}
+		}
+		return serializes;
+	}
+
 	/**
 	 * Gson通用类型适配器
 	 * 
@@ -170,33 +208,23 @@ public final class Jsons {
 				writer.endArray();
 			} else {
 				writer.beginObject();
-				Class<?> type = object.getClass();
-				while (type != Object.class) {
-					for (Field field : type.getDeclaredFields()) {
-						if (Modifier.isStatic(field.getModifiers())) {
-							continue;
-						}
-						Object value;
-						field.setAccessible(true);
-						try {
-							value = field.get(object);
-						} catch (IllegalAccessException e) {
-							throw new RuntimeException(e);
-						} finally {
-							field.setAccessible(false);
-						}
-						writer.name(field.getName());
-						if (value instanceof CharSequence) {
-							value = Strings.escape((CharSequence) value);
-						}
-						if (value == null || value instanceof CharSequence || value instanceof Number
-								|| value instanceof Boolean || Beans.isMetaClass(value.getClass())) {
-							write(writer, value, level);
-						} else {
-							write(writer, value, level + 1);
-						}
+				for (Field field : getSerializeFields(object.getClass())) {
+					Object value;
+					try {
+						value = field.get(object);
+					} catch (IllegalAccessException e) {
+						throw new RuntimeException(e);
+					}
+					writer.name(field.getName());
+					if (value instanceof CharSequence) {
+						value = Strings.escape((CharSequence) value);
+					}
+					if (value == null || value instanceof CharSequence || value instanceof Number
+							|| value instanceof Boolean || Beans.isMetaClass(value.getClass())) {
+						write(writer, value, level);
+					} else {
+						write(writer, value, level + 1);
 					}
-					type = type.getSuperclass();
 				}
 				writer.endObject();
 			}
@@ -231,7 +259,7 @@ public final class Jsons {
 	 * @return json处理对象
 	 */
 	public static Gson buildGson(final int depth) {
-		return gsonBuilder.registerTypeAdapterFactory(new TypeAdapterFactory() {
+		return new GsonBuilder().registerTypeAdapterFactory(new TypeAdapterFactory() {
 
 			@SuppressWarnings("unchecked")
 			@Override
@@ -242,6 +270,26 @@ public final class Jsons {
 		}).disableHtmlEscaping().create();
 	}
 
+	/**
+	 * 获取指定对象属性下钻深度的json处理对象（线程安全，按深度复用）
+	 * 
+	 * @param depth
+	 *            对象属性下钻深度（小于1表示不限制深度）
+	 * @return json处理对象
+	 */
+	public static Gson getGson(int depth) {
+		Integer key = depth < 1 ? -1 : depth;
+		Gson gson = gsons.get(key);
+		if (gson == null) {
+			gson = buildGson(key);
+			Gson exists = gsons.putIfAbsent(key, gson);
+			if (exists != null) {
+				gson = exists;
+			}
+		}
+		return gson;
+	}
+
 	/**
 	 * 获取默认json处理对象
 	 * 
@@ -251,7 +299,7 @@ public final class Jsons {
 		if (defaultGson == null) {
 			synchronized (Jsons.class) {
 				if (defaultGson == null) {
-					defaultGson = gsonBuilder.create();
+					defaultGson = new GsonBuilder().create();
 				}
 			}
 		}
@@ -310,10 +358,55 @@ public final class Jsons {
 	 * @return JSON字符串
 	 */
 	public static String format(Object object, int depth) {
-		return object == null ? null : object instanceof CharSequence ? ((CharSequence) object).toString() : buildGson(
+		return object == null ? null : object instanceof CharSequence ? ((CharSequence) object).toString() : getGson(
 				depth).toJson(object);
 	}
 
+	/**
+	 * 将对象以JSON格式写入字符输出流
+	 * 
+	 * @param object
+	 *            被转换对象
+	 * @param writer
+	 *            字符输出流
+	 * @param depth
+	 *            对象属性关联深度
+	 * @throws IOException
+	 *             IO操作异常
+	 */
+	public static void write(Object object, Writer writer, int depth) throws IOException {
+		if (writer == null) {
+			throw new IllegalArgumentException("Illegal writer:" + writer);
+		}
+		if (object == null) {
+			return;
+		} else if (object instanceof CharSequence) {
+			writer.append((CharSequence) object);
+		} else {
+			getGson(depth).toJson(object, object.getClass(), new JsonWriter(writer));
+		}
+		writer.flush();
+	}
+
+	/**
+	 * 将对象以JSON格式写入输出流
+	 * 
+	 * @param object
+	 *            被转换对象
+	 * @param output
+	 *            输出流
+	 * @param depth
+	 *            对象属性关联深度
+	 * @throws IOException
+	 *             IO操作异常
+	 */
+	public static void write(Object object, OutputStream output, int depth) throws IOException {
+		if (output == null) {
+			throw new IllegalArgumentException("Illegal output:" + output);
+		}
+		write(object, new OutputStreamWriter(output), depth);
+	}
+
 	/**
 	 * 将JSON字符串反转成对象
 	 * 
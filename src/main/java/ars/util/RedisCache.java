@@ -1,19 +1,33 @@
 package ars.util;
 
-import java.util.Set;
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Map.Entry;
+import java.util.LinkedHashMap;
 import java.io.IOException;
 import java.io.Serializable;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.exceptions.JedisDataException;
 
 import ars.util.Cache;
+import ars.util.Streams;
+import ars.util.Strings;
 
 /**
  * 基于Redis的数据缓存实现
  * 
+ * 缓存值格式为2字节标识、1字节版本号、4字节超时时间（秒）加序列化数据，读取时通过Lua脚本在一次往返中完成取值和滑动过期，不带标识的值按旧版序列化包装对象格式读取；按通配规则移除缓存时使用SCAN增量遍历，避免KEYS阻塞Redis
+ * 
  * @author yongqiangwu
- *
+ * 
  */
 public class RedisCache implements Cache {
 	/**
@@ -21,26 +35,66 @@ public class RedisCache implements Cache {
 	 */
 	public static final String PREFIX = "ars_cache_";
 
+	/**
+	 * 默认SCAN每批次数量
+	 */
+	public static final int DEFAULT_SCAN_COUNT = 1000;
+
+	/**
+	 * 缓存值格式标识
+	 */
+	private static final byte[] MAGIC = { 'A', 'C' };
+
+	/**
+	 * 缓存值格式版本号
+	 */
+	private static final byte VERSION = 1;
+
+	/**
+	 * 缓存值头部长度
+	 */
+	private static final int HEADER_LENGTH = MAGIC.length + 1 + 4;
+
+	/**
+	 * 取值并刷新过期时间的Lua脚本
+	 */
+	private static final byte[] GET_SCRIPT = ("local v = redis.call('GET', KEYS[1]) "
+			+ "if v and string.len(v) >= " + HEADER_LENGTH + " and string.byte(v, 1) == " + MAGIC[0]
+			+ " and string.byte(v, 2) == " + MAGIC[1] + " and string.byte(v, 3) == " + VERSION + " then "
+			+ "local t = string.byte(v, 4) * 16777216 + string.byte(v, 5) * 65536 + string.byte(v, 6) * 256 + string.byte(v, 7) "
+			+ "if t > 0 then redis.call('EXPIRE', KEYS[1], t) end end return v").getBytes();
+
 	protected final JedisPool pool;
+	protected final Serializer serializer;
+	private int scanCount = DEFAULT_SCAN_COUNT; // SCAN每批次数量
+	private volatile byte[] script; // Lua脚本SHA1标识
 
 	public RedisCache() {
 		this(new JedisPool());
 	}
 
 	public RedisCache(JedisPool pool) {
+		this(pool, new JavaSerializer());
+	}
+
+	public RedisCache(JedisPool pool, Serializer serializer) {
 		if (pool == null) {
 			throw new IllegalArgumentException("Illegal pool:" + pool);
 		}
+		if (serializer == null) {
+			throw new IllegalArgumentException("Illegal serializer:" + serializer);
+		}
 		this.pool = pool;
+		this.serializer = serializer;
 	}
 
 	/**
-	 * 缓存值包装类
+	 * 缓存值包装类，兼容旧版本缓存值格式
 	 * 
 	 * @author yongqiangwu
 	 *
 	 */
-	class ValueWrapper implements Serializable {
+	static class ValueWrapper implements Serializable {
 		private static final long serialVersionUID = 1L;
 
 		public final Object value; // 缓存值
@@ -52,6 +106,255 @@ public class RedisCache implements Cache {
 		}
 	}
 
+	/**
+	 * 缓存值序列化接口
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	public static interface Serializer {
+		/**
+		 * 将缓存值转换成字节数组
+		 * 
+		 * @param value
+		 *            缓存值
+		 * @return 字节数组
+		 * @throws IOException
+		 *             IO操作异常
+		 */
+		public byte[] serialize(Object value) throws IOException;
+
+		/**
+		 * 将字节数组转换成缓存值
+		 * 
+		 * @param bytes
+		 *            字节数组
+		 * @return 缓存值
+		 * @throws IOException
+		 *             IO操作异常
+		 */
+		public Object deserialize(byte[] bytes) throws IOException;
+
+	}
+
+	/**
+	 * 基于Java对象流的缓存值序列化实现
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	public static class JavaSerializer implements Serializer {
+
+		@Override
+		public byte[] serialize(Object value) throws IOException {
+			if (value == null) {
+				return new byte[0];
+			} else if (!(value instanceof Serializable)) {
+				throw new IOException("Value is not serializable:" + value.getClass().getName());
+			}
+			return Streams.serialize((Serializable) value);
+		}
+
+		@Override
+		public Object deserialize(byte[] bytes) throws IOException {
+			try {
+				return Streams.deserialize(bytes);
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e);
+			}
+		}
+
+	}
+
+	public int getScanCount() {
+		return scanCount;
+	}
+
+	public void setScanCount(int scanCount) {
+		if (scanCount < 1) {
+			throw new IllegalArgumentException("Illegal scanCount:" + scanCount);
+		}
+		this.scanCount = scanCount;
+	}
+
+	/**
+	 * 获取Redis缓存标识
+	 * 
+	 * @param key
+	 *            缓存标识
+	 * @return Redis缓存标识
+	 */
+	protected byte[] id(String key) {
+		return (PREFIX + key).getBytes();
+	}
+
+	/**
+	 * 将缓存值编码成字节数组
+	 * 
+	 * @param value
+	 *            缓存值
+	 * @param timeout
+	 *            超时时间（秒）
+	 * @return 字节数组
+	 */
+	protected byte[] encode(Object value, int timeout) {
+		byte[] data;
+		try {
+			data = this.serializer.serialize(value);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		int length = data == null ? 0 : data.length;
+		int expire = timeout > 0 ? timeout : 0;
+		byte[] bytes = new byte[length + HEADER_LENGTH];
+		bytes[0] = MAGIC[0];
+		bytes[1] = MAGIC[1];
+		bytes[2] = VERSION;
+		bytes[3] = (byte) (expire >>> 24);
+		bytes[4] = (byte) (expire >>> 16);
+		bytes[5] = (byte) (expire >>> 8);
+		bytes[6] = (byte) expire;
+		if (length > 0) {
+			System.arraycopy(data, 0, bytes, HEADER_LENGTH, length);
+		}
+		return bytes;
+	}
+
+	/**
+	 * 判断字节数组是否为当前版本缓存值格式
+	 * 
+	 * @param bytes
+	 *            字节数组
+	 * @return true/false
+	 */
+	protected boolean isCurrent(byte[] bytes) {
+		return bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC[0] && bytes[1] == MAGIC[1] && bytes[2] == VERSION;
+	}
+
+	/**
+	 * 将字节数组解码成缓存值
+	 * 
+	 * @param bytes
+	 *            字节数组
+	 * @return 缓存值
+	 */
+	protected Object decode(byte[] bytes) {
+		if (bytes == null || bytes.length == 0) {
+			return null;
+		} else if (!this.isCurrent(bytes)) {
+			return this.decodeLegacy(bytes).value;
+		} else if (bytes.length == HEADER_LENGTH) {
+			return null;
+		}
+		byte[] data = new byte[bytes.length - HEADER_LENGTH];
+		System.arraycopy(bytes, HEADER_LENGTH, data, 0, data.length);
+		try {
+			return this.serializer.deserialize(data);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * 将旧版本格式（序列化缓存值包装对象）的字节数组解码成缓存值包装对象
+	 * 
+	 * @param bytes
+	 *            字节数组
+	 * @return 缓存值包装对象
+	 */
+	protected ValueWrapper decodeLegacy(byte[] bytes) {
+		Object value;
+		try {
+			value = Streams.deserialize(bytes);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		} catch (ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+		return value instanceof ValueWrapper ? (ValueWrapper) value : new ValueWrapper(value, 0);
+	}
+
+	/**
+	 * 读取缓存值并对旧版本格式的缓存值刷新过期时间
+	 * 
+	 * @param jedis
+	 *            Redis连接
+	 * @param id
+	 *            Redis缓存标识
+	 * @param bytes
+	 *            字节数组
+	 * @return 缓存值
+	 */
+	private Object read(Jedis jedis, byte[] id, byte[] bytes) {
+		if (bytes == null || bytes.length == 0 || this.isCurrent(bytes)) {
+			return this.decode(bytes);
+		}
+		ValueWrapper wrapper = this.decodeLegacy(bytes);
+		if (wrapper.timeout > 0) {
+			jedis.expire(id, wrapper.timeout);
+		}
+		return wrapper.value;
+	}
+
+	/**
+	 * 获取取值脚本SHA1标识
+	 * 
+	 * @param jedis
+	 *            Redis连接
+	 * @param reload
+	 *            是否重新加载
+	 * @return SHA1标识
+	 */
+	protected byte[] script(Jedis jedis, boolean reload) {
+		if (this.script == null || reload) {
+			this.script = jedis.scriptLoad(GET_SCRIPT);
+		}
+		return this.script;
+	}
+
+	/**
+	 * 判断是否为脚本不存在异常
+	 * 
+	 * @param e
+	 *            Redis数据异常
+	 * @return true/false
+	 */
+	protected boolean isNoScript(JedisDataException e) {
+		return e.getMessage() != null && e.getMessage().startsWith("NOSCRIPT");
+	}
+
+	/**
+	 * 判断缓存标识是否为通配规则
+	 * 
+	 * @param key
+	 *            缓存标识
+	 * @return true/false
+	 */
+	protected boolean isPattern(String key) {
+		return key.indexOf('*') > -1 || key.indexOf('?') > -1 || key.indexOf('[') > -1;
+	}
+
+	/**
+	 * 使用SCAN增量删除匹配的缓存
+	 * 
+	 * @param jedis
+	 *            Redis连接
+	 * @param pattern
+	 *            Redis匹配模式
+	 */
+	protected void scanDelete(Jedis jedis, String pattern) {
+		ScanParams params = new ScanParams().match(pattern).count(this.scanCount);
+		String cursor = ScanParams.SCAN_POINTER_START;
+		do {
+			ScanResult<String> result = jedis.scan(cursor, params);
+			List<String> keys = result.getResult();
+			if (!keys.isEmpty()) {
+				jedis.del(keys.toArray(Strings.EMPTY_ARRAY));
+			}
+			cursor = result.getStringCursor();
+		} while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+	}
+
 	@Override
 	public Object get(String key) {
 		if (key == null) {
@@ -60,23 +363,86 @@ public class RedisCache implements Cache {
 		if (this.pool.isClosed()) {
 			throw new RuntimeException("The cache has been destroyed");
 		}
-		byte[] id = (PREFIX + key).getBytes();
+		byte[] id = this.id(key);
 		Jedis jedis = this.pool.getResource();
 		try {
-			ValueWrapper wrapper = (ValueWrapper) Streams.deserialize(jedis.get(id));
-			if (wrapper.timeout > 0) {
-				jedis.expire(id, wrapper.timeout);
+			Object bytes;
+			try {
+				bytes = jedis.evalsha(this.script(jedis, false), 1, id);
+			} catch (JedisDataException e) {
+				if (!this.isNoScript(e)) {
+					throw e;
+				}
+				bytes = jedis.evalsha(this.script(jedis, true), 1, id);
 			}
-			return wrapper.value;
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		} catch (ClassNotFoundException e) {
-			throw new RuntimeException(e);
+			return this.read(jedis, id, (byte[]) bytes);
 		} finally {
 			jedis.close();
 		}
 	}
 
+	@Override
+	public Map<String, Object> getAll(String... keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("Illegal keys:" + keys);
+		}
+		if (this.pool.isClosed()) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		if (keys.length == 0) {
+			return new HashMap<String, Object>(0);
+		}
+		Jedis jedis = this.pool.getResource();
+		try {
+			List<Response<Object>> responses;
+			try {
+				responses = this.pipelineGet(jedis, this.script(jedis, false), keys);
+			} catch (JedisDataException e) {
+				if (!this.isNoScript(e)) {
+					throw e;
+				}
+				responses = this.pipelineGet(jedis, this.script(jedis, true), keys);
+			}
+			Map<String, Object> values = new LinkedHashMap<String, Object>(keys.length);
+			for (int i = 0; i < keys.length; i++) {
+				byte[] bytes = (byte[]) responses.get(i).get();
+				if (bytes != null) {
+					values.put(keys[i], this.read(jedis, this.id(keys[i]), bytes));
+				}
+			}
+			return values;
+		} finally {
+			jedis.close();
+		}
+	}
+
+	/**
+	 * 通过管道批量执行取值脚本
+	 * 
+	 * @param jedis
+	 *            Redis连接
+	 * @param sha
+	 *            脚本SHA1标识
+	 * @param keys
+	 *            缓存标识数组
+	 * @return 响应对象列表
+	 */
+	private List<Response<Object>> pipelineGet(Jedis jedis, byte[] sha, String... keys) {
+		Pipeline pipeline = jedis.pipelined();
+		List<Response<Object>> responses = new ArrayList<Response<Object>>(keys.length);
+		for (String key : keys) {
+			if (key == null) {
+				throw new IllegalArgumentException("Illegal key:" + key);
+			}
+			responses.add(pipeline.evalsha(sha, 1, this.id(key)));
+		}
+		pipeline.sync();
+		for (Response<Object> response : responses) {
+			response.get();
+		}
+		return responses;
+	}
+
 	@Override
 	public void set(String key, Object value) {
 		this.set(key, value, 0);
@@ -90,13 +456,8 @@ public class RedisCache implements Cache {
 		if (this.pool.isClosed()) {
 			throw new RuntimeException("The cache has been destroyed");
 		}
-		byte[] bytes;
-		byte[] id = (PREFIX + key).getBytes();
-		try {
-			bytes = Streams.serialize(new ValueWrapper(value, timeout));
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+		byte[] id = this.id(key);
+		byte[] bytes = this.encode(value, timeout);
 		Jedis jedis = this.pool.getResource();
 		try {
 			if (timeout > 0) {
@@ -109,6 +470,45 @@ public class RedisCache implements Cache {
 		}
 	}
 
+	@Override
+	public void setAll(Map<String, Object> values) {
+		this.setAll(values, 0);
+	}
+
+	@Override
+	public void setAll(Map<String, Object> values, int timeout) {
+		if (values == null) {
+			throw new IllegalArgumentException("Illegal values:" + values);
+		}
+		if (this.pool.isClosed()) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		if (values.isEmpty()) {
+			return;
+		}
+		Map<byte[], byte[]> entries = new LinkedHashMap<byte[], byte[]>(values.size());
+		for (Entry<String, Object> entry : values.entrySet()) {
+			if (entry.getKey() == null) {
+				throw new IllegalArgumentException("Illegal key:" + entry.getKey());
+			}
+			entries.put(this.id(entry.getKey()), this.encode(entry.getValue(), timeout));
+		}
+		Jedis jedis = this.pool.getResource();
+		try {
+			Pipeline pipeline = jedis.pipelined();
+			for (Entry<byte[], byte[]> entry : entries.entrySet()) {
+				if (timeout > 0) {
+					pipeline.setex(entry.getKey(), timeout, entry.getValue());
+				} else {
+					pipeline.set(entry.getKey(), entry.getValue());
+				}
+			}
+			pipeline.sync();
+		} finally {
+			jedis.close();
+		}
+	}
+
 	@Override
 	public void remove(String key) {
 		if (key == null) {
@@ -119,9 +519,54 @@ public class RedisCache implements Cache {
 		}
 		Jedis jedis = this.pool.getResource();
 		try {
-			Set<String> keys = jedis.keys(PREFIX + key);
-			if (!keys.isEmpty()) {
-				jedis.del(keys.toArray(Strings.EMPTY_ARRAY));
+			if (this.isPattern(key)) {
+				this.scanDelete(jedis, PREFIX + key);
+			} else {
+				jedis.del(PREFIX + key);
+			}
+		} finally {
+			jedis.close();
+		}
+	}
+
+	/**
+	 * 批量移除缓存
+	 * 
+	 * 不包含通配符的缓存标识通过一次DEL命令移除，通配规则按规则逐个扫描移除
+	 * 
+	 * @param keys
+	 *            缓存标识或通配规则数组
+	 */
+	@Override
+	public void removeAll(String... keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("Illegal keys:" + keys);
+		}
+		if (this.pool.isClosed()) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		List<String> exacts = new ArrayList<String>(keys.length);
+		List<String> patterns = new ArrayList<String>(0);
+		for (String key : keys) {
+			if (key == null) {
+				throw new IllegalArgumentException("Illegal key:" + key);
+			}
+			if (this.isPattern(key)) {
+				patterns.add(PREFIX + key);
+			} else {
+				exacts.add(PREFIX + key);
+			}
+		}
+		if (exacts.isEmpty() && patterns.isEmpty()) {
+			return;
+		}
+		Jedis jedis = this.pool.getResource();
+		try {
+			if (!exacts.isEmpty()) {
+				jedis.del(exacts.toArray(new String[exacts.size()]));
+			}
+			for (String pattern : patterns) {
+				this.scanDelete(jedis, pattern);
 			}
 		} finally {
 			jedis.close();
@@ -151,10 +596,7 @@ public class RedisCache implements Cache {
 		}
 		Jedis jedis = this.pool.getResource();
 		try {
-			Set<String> keys = jedis.keys(PREFIX + "*");
-			if (!keys.isEmpty()) {
-				jedis.del(keys.toArray(Strings.EMPTY_ARRAY));
-			}
+			this.scanDelete(jedis, PREFIX + "*");
 		} finally {
 			jedis.close();
 		}
@@ -1,12 +1,21 @@
 package ars.util;
 
+import java.util.Map;
 import java.util.LinkedList;
+import java.util.Collections;
+import java.lang.reflect.Method;
 import java.util.concurrent.Future;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import ars.util.Server;
+import ars.util.BoundedExecutor;
 
 /**
  * 系统服务工具类
@@ -15,13 +24,93 @@ import ars.util.Server;
  * 
  */
 public final class Servers {
+	private static final Logger logger = LoggerFactory.getLogger(Servers.class);
+
+	/**
+	 * 默认线程池名称
+	 */
+	public static final String EXECUTOR_DEFAULT = "default";
+
+	/**
+	 * 多资源并行调用线程池名称
+	 */
+	public static final String EXECUTOR_FANOUT = "fanout";
+
+	/**
+	 * 远程文件传输线程池名称
+	 */
+	public static final String EXECUTOR_REMOTE = "remote";
+
+	/**
+	 * 远程调用结果回调线程池名称
+	 */
+	public static final String EXECUTOR_CALLBACK = "callback";
+
+	/**
+	 * 请求调度线程池名称（仅在虚拟线程模式下使用）
+	 */
+	public static final String EXECUTOR_DISPATCH = "dispatch";
+
+	/**
+	 * 异步事件监听线程池名称
+	 */
+	public static final String EXECUTOR_EVENT = "event";
+
+	/**
+	 * 虚拟线程模式系统属性名称
+	 */
+	public static final String VIRTUAL_PROPERTY = "ars.servers.virtual";
+
+	/**
+	 * 处理器数量
+	 */
+	private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
 	private static ExecutorService executor;
+	private static volatile boolean virtual = Boolean.getBoolean(VIRTUAL_PROPERTY); // 是否使用虚拟线程模式
+	private static Method virtualExecutorFactory; // 虚拟线程执行器工厂方法
+	private static final ConcurrentMap<String, ExecutorService> executors = new ConcurrentHashMap<String, ExecutorService>(); // 线程池名称/线程池映射
 	private final static LinkedList<Server> servers = new LinkedList<Server>();
 
+	static {
+		try {
+			virtualExecutorFactory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+		}
+	}
+
 	private Servers() {
 
 	}
 
+	/**
+	 * 判断当前运行环境是否支持虚拟线程
+	 * 
+	 * @return true/false
+	 */
+	public static boolean isVirtualSupported() {
+		return virtualExecutorFactory != null;
+	}
+
+	/**
+	 * 判断是否使用虚拟线程模式（已开启且当前运行环境支持虚拟线程）
+	 * 
+	 * @return true/false
+	 */
+	public static boolean isVirtual() {
+		return virtual && virtualExecutorFactory != null;
+	}
+
+	/**
+	 * 设置是否使用虚拟线程模式，需要在线程池首次使用之前设置；运行环境不支持虚拟线程时仍使用有界线程池
+	 * 
+	 * @param virtual
+	 *            是否使用虚拟线程模式
+	 */
+	public static void setVirtual(boolean virtual) {
+		Servers.virtual = virtual;
+	}
+
 	/**
 	 * 注册系统服务
 	 * 
@@ -53,7 +142,7 @@ public final class Servers {
 	}
 
 	/**
-	 * 获取线程池对象
+	 * 获取默认线程池对象
 	 * 
 	 * @return 线程池对象
 	 */
@@ -61,7 +150,7 @@ public final class Servers {
 		if (executor == null) {
 			synchronized (Servers.class) {
 				if (executor == null) {
-					executor = Executors.newCachedThreadPool();
+					executor = buildExecutor(EXECUTOR_DEFAULT);
 				}
 			}
 		}
@@ -69,7 +158,7 @@ public final class Servers {
 	}
 
 	/**
-	 * 设置线程池对象
+	 * 设置默认线程池对象
 	 * 
 	 * @param executor
 	 *            线程池对象
@@ -87,6 +176,105 @@ public final class Servers {
 		}
 	}
 
+	/**
+	 * 根据名称获取线程池对象，不同用途的任务使用相互隔离的线程池，未设置的线程池按名称使用默认有界线程池配置
+	 * 
+	 * @param name
+	 *            线程池名称
+	 * @return 线程池对象
+	 */
+	public static ExecutorService getExecutor(String name) {
+		if (name == null) {
+			throw new IllegalArgumentException("Illegal name:" + name);
+		}
+		if (name.equals(EXECUTOR_DEFAULT)) {
+			return getExecutor();
+		}
+		ExecutorService executor = executors.get(name);
+		if (executor == null) {
+			synchronized (Servers.class) {
+				if ((executor = executors.get(name)) == null) {
+					executor = buildExecutor(name);
+					executors.put(name, executor);
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * 设置指定名称的线程池对象
+	 * 
+	 * @param name
+	 *            线程池名称
+	 * @param executor
+	 *            线程池对象
+	 */
+	public static void setExecutor(String name, ExecutorService executor) {
+		if (name == null) {
+			throw new IllegalArgumentException("Illegal name:" + name);
+		}
+		if (executor == null) {
+			throw new IllegalArgumentException("Illegal executor:" + executor);
+		}
+		if (name.equals(EXECUTOR_DEFAULT)) {
+			setExecutor(executor);
+		} else {
+			executors.putIfAbsent(name, executor);
+		}
+	}
+
+	/**
+	 * 获取所有已创建的命名线程池（不包括默认线程池）
+	 * 
+	 * @return 线程池名称/线程池映射
+	 */
+	public static Map<String, ExecutorService> getExecutors() {
+		return Collections.unmodifiableMap(executors);
+	}
+
+	/**
+	 * 构建默认配置的有界线程池
+	 * 
+	 * 线程池使用有界队列时只有队列已满才会创建超过核心线程数的线程，因此除多资源并行调用线程池（不使用队列）外核心线程数均等于最大线程数，空闲线程超时后回收；虚拟线程模式下均使用每任务一个虚拟线程的执行器；异步事件监听线程池任务积压时拒绝新任务（由调用方记录丢弃的事件）；多资源并行调用线程池不使用队列，线程数达到上限时在调用线程中执行；远程调用结果回调线程池队列已满时拒绝新任务（由调用方处理，避免在ICE客户端线程中执行回调）；远程文件传输及其他线程池队列已满时在调用线程中执行
+	 * 
+	 * @param name
+	 *            线程池名称
+	 * @return 线程池对象
+	 */
+	private static ExecutorService buildExecutor(String name) {
+		if (isVirtual()) {
+			try {
+				return (ExecutorService) virtualExecutorFactory.invoke(null);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+		BoundedExecutor executor;
+		if (name.equals(EXECUTOR_EVENT)) {
+			executor = new BoundedExecutor(name, Math.max(PROCESSORS, 2), Math.max(PROCESSORS, 2), 10000,
+					BoundedExecutor.Policy.ABORT);
+		} else if (name.equals(EXECUTOR_FANOUT)) {
+			executor = new BoundedExecutor(name, PROCESSORS * 2, Math.max(PROCESSORS * 16, 64), 0,
+					BoundedExecutor.Policy.CALLER_RUNS);
+		} else if (name.equals(EXECUTOR_CALLBACK)) {
+			executor = new BoundedExecutor(name, Math.max(PROCESSORS * 8, 32), Math.max(PROCESSORS * 8, 32), 10000,
+					BoundedExecutor.Policy.ABORT);
+		} else if (name.equals(EXECUTOR_REMOTE)) {
+			executor = new BoundedExecutor(name, Math.max(PROCESSORS * 8, 32), Math.max(PROCESSORS * 8, 32), 1000,
+					BoundedExecutor.Policy.CALLER_RUNS);
+		} else {
+			executor = new BoundedExecutor(name, Math.max(PROCESSORS * 16, 64), Math.max(PROCESSORS * 16, 64), 1000,
+					BoundedExecutor.Policy.CALLER_RUNS);
+		}
+		try {
+			executor.register();
+		} catch (RuntimeException e) {
+			logger.warn("Executor register failed: " + name, e);
+		}
+		return executor;
+	}
+
 	/**
 	 * 执行线程
 	 * 
@@ -151,6 +339,39 @@ public final class Servers {
 		return getExecutor().submit(callable);
 	}
 
+	/**
+	 * 使用指定名称的线程池执行线程
+	 * 
+	 * @param name
+	 *            线程池名称
+	 * @param runnable
+	 *            线程处理接口
+	 */
+	public static void execute(String name, Runnable runnable) {
+		if (runnable == null) {
+			throw new IllegalArgumentException("Illegal runnable:" + runnable);
+		}
+		getExecutor(name).execute(runnable);
+	}
+
+	/**
+	 * 使用指定名称的线程池提交任务
+	 * 
+	 * @param <T>
+	 *            结果类型
+	 * @param name
+	 *            线程池名称
+	 * @param callable
+	 *            线程处理接口
+	 * @return 任务结果
+	 */
+	public static <T> Future<T> submit(String name, Callable<T> callable) {
+		if (callable == null) {
+			throw new IllegalArgumentException("Illegal callable:" + callable);
+		}
+		return getExecutor(name).submit(callable);
+	}
+
 	/**
 	 * 销毁服务资源
 	 */
@@ -158,13 +379,15 @@ public final class Servers {
 		while (!servers.isEmpty()) {
 			servers.getLast().stop();
 		}
-		if (executor != null) {
-			synchronized (Servers.class) {
-				if (executor != null) {
-					executor.shutdown();
-					executor = null;
-				}
+		synchronized (Servers.class) {
+			if (executor != null) {
+				executor.shutdown();
+				executor = null;
+			}
+			for (ExecutorService executor : executors.values()) {
+				executor.shutdown();
 			}
+			executors.clear();
 		}
 	}
 
@@ -3,6 +3,7 @@ package ars.util;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map.Entry;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.io.Serializable;
@@ -106,6 +107,34 @@ public class SimpleCache implements Cache {
 		}
 	}
 
+	@Override
+	public Map<String, Object> getAll(String... keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("Illegal keys:" + keys);
+		}
+		Map<String, Object> values = new HashMap<String, Object>(keys.length);
+		this.lock.readLock().lock();
+		try {
+			if (this.destroyed) {
+				throw new RuntimeException("The cache has been destroyed");
+			}
+			long timestamp = System.currentTimeMillis();
+			for (String key : keys) {
+				if (key == null) {
+					throw new IllegalArgumentException("Illegal key:" + key);
+				}
+				ValueWrapper wrapper = this.values.get(key);
+				if (wrapper != null && !wrapper.isExpired()) {
+					wrapper.timestamp = timestamp;
+					values.put(key, wrapper.value);
+				}
+			}
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		return values;
+	}
+
 	@Override
 	public void set(String key, Object value) {
 		this.set(key, value, 0);
@@ -127,6 +156,32 @@ public class SimpleCache implements Cache {
 		}
 	}
 
+	@Override
+	public void setAll(Map<String, Object> values) {
+		this.setAll(values, 0);
+	}
+
+	@Override
+	public void setAll(Map<String, Object> values, int timeout) {
+		if (values == null) {
+			throw new IllegalArgumentException("Illegal values:" + values);
+		}
+		this.lock.writeLock().lock();
+		try {
+			if (this.destroyed) {
+				throw new RuntimeException("The cache has been destroyed");
+			}
+			for (Entry<String, Object> entry : values.entrySet()) {
+				if (entry.getKey() == null) {
+					throw new IllegalArgumentException("Illegal key:" + entry.getKey());
+				}
+				this.values.put(entry.getKey(), new ValueWrapper(entry.getValue(), timeout));
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
 	@Override
 	public void remove(String key) {
 		if (key == null) {
@@ -148,6 +203,16 @@ public class SimpleCache implements Cache {
 		}
 	}
 
+	@Override
+	public void removeAll(String... keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("Illegal keys:" + keys);
+		}
+		for (String key : keys) {
+			this.remove(key);
+		}
+	}
+
 	@Override
 	public boolean exists(String key) {
 		if (key == null) {
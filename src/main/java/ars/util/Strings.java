@@ -215,6 +215,39 @@ public final class Strings {
 		}
 	}
 
+	/**
+	 * SHA-256摘要（按UTF-8编码计算）
+	 * 
+	 * @param source
+	 *            源字符序列
+	 * @param start
+	 *            开始位置（包含）
+	 * @param end
+	 *            结束位置（不包含）
+	 * @return 64位16进制摘要字符串
+	 */
+	public static String sha256(CharSequence source, int start, int end) {
+		if (source == null) {
+			throw new IllegalArgumentException("Illegal source:" + source);
+		}
+		if (start < 0 || end > source.length() || start > end) {
+			throw new IllegalArgumentException("Illegal range:" + start + "-" + end);
+		}
+		byte[] bytes;
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			bytes = digest.digest(source.subSequence(start, end).toString().getBytes(UTF8));
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+			chars[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+		}
+		return new String(chars);
+	}
+
 	/**
 	 * DES加密
 	 * 
@@ -0,0 +1,424 @@
+package ars.util;
+
+import java.util.Map;
+import java.util.List;
+import java.util.UUID;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Map.Entry;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+
+import ars.util.Cache;
+import ars.util.Strings;
+import ars.util.RedisCache;
+import ars.util.AbstractServer;
+import ars.util.ConcurrentCache;
+
+/**
+ * 本地/远程二级数据缓存实现
+ * 
+ * 读取时优先访问本地有界缓存，未命中或本地缓存值超过本地缓存超时时间（自回填时间起算，读取不延长）时访问远程缓存并回填本地；写入和移除操作同时作用于两级缓存，并通过Redis发布/订阅通知其他节点失效本地缓存（批量写入仅发布一条通知）
+ * 
+ * @author yongqiangwu
+ * 
+ */
+public class TieredCache implements Cache {
+	/**
+	 * 缓存失效通知频道
+	 */
+	public static final String CHANNEL = "ars_cache_invalidation";
+
+	/**
+	 * 默认本地缓存超时时间（秒）
+	 */
+	public static final int DEFAULT_LOCAL_TIMEOUT = 60;
+
+	/**
+	 * 移除操作标记
+	 */
+	private static final char REMOVE = 'R';
+
+	/**
+	 * 批量移除操作标记（多个缓存标识以换行符分隔）
+	 */
+	private static final char REMOVE_ALL = 'B';
+
+	/**
+	 * 清空操作标记
+	 */
+	private static final char CLEAR = 'C';
+
+	protected final Cache local; // 本地缓存
+	protected final Cache remote; // 远程缓存
+	protected final JedisPool pool; // 发布/订阅连接池
+	private boolean destroyed;
+	private int localTimeout = DEFAULT_LOCAL_TIMEOUT; // 本地缓存超时时间（秒）
+	private final String node = UUID.randomUUID().toString(); // 当前节点标识
+	private final Subscriber subscriber = new Subscriber();
+
+	public TieredCache(RedisCache remote) {
+		this(new ConcurrentCache(), remote, remote.pool);
+	}
+
+	public TieredCache(Cache local, RedisCache remote) {
+		this(local, remote, remote.pool);
+	}
+
+	public TieredCache(Cache local, Cache remote, JedisPool pool) {
+		if (local == null) {
+			throw new IllegalArgumentException("Illegal local:" + local);
+		}
+		if (remote == null) {
+			throw new IllegalArgumentException("Illegal remote:" + remote);
+		}
+		if (pool == null) {
+			throw new IllegalArgumentException("Illegal pool:" + pool);
+		}
+		this.local = local;
+		this.remote = remote;
+		this.pool = pool;
+		this.subscriber.setDaemon(true);
+		this.subscriber.start();
+	}
+
+	/**
+	 * 本地缓存值包装类，记录绝对过期时间，避免本地缓存滑动过期导致热点数据长期不与远程缓存同步
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	static class LocalValue {
+		public final Object value; // 缓存值
+		public final long deadline; // 过期时间（毫秒）
+
+		public LocalValue(Object value, int timeout) {
+			this.value = value;
+			this.deadline = System.currentTimeMillis() + timeout * 1000L;
+		}
+
+		/**
+		 * 判断缓存值是否过期
+		 * 
+		 * @return true/false
+		 */
+		public boolean isExpired() {
+			return System.currentTimeMillis() >= this.deadline;
+		}
+	}
+
+	/**
+	 * 缓存失效通知订阅服务
+	 * 
+	 * @author yongqiangwu
+	 * 
+	 */
+	class Subscriber extends AbstractServer {
+		private volatile boolean running = true;
+		private final JedisPubSub listener = new JedisPubSub() {
+
+			@Override
+			public void onMessage(String channel, String message) {
+				int index = message.indexOf('\n');
+				if (index < 1 || index + 1 >= message.length() || message.startsWith(node)) {
+					return;
+				}
+				char operation = message.charAt(index + 1);
+				if (operation == CLEAR) {
+					local.clear();
+				} else if (operation == REMOVE) {
+					local.remove(message.substring(index + 2));
+				} else if (operation == REMOVE_ALL) {
+					for (String key : Strings.split(message.substring(index + 2), '\n')) {
+						if (!key.isEmpty()) {
+							local.remove(key);
+						}
+					}
+				}
+			}
+
+			@Override
+			public void onSubscribe(String channel, int subscribedChannels) {
+				local.clear();
+			}
+
+		};
+
+		@Override
+		public void run() {
+			while (this.running && !Thread.currentThread().isInterrupted()) {
+				try {
+					Jedis jedis = pool.getResource();
+					try {
+						jedis.subscribe(this.listener, CHANNEL);
+					} finally {
+						jedis.close();
+					}
+				} catch (Exception e) {
+					if (!this.running) {
+						break;
+					}
+					logger.warn("Cache invalidation subscribe failed", e);
+					local.clear();
+					try {
+						Thread.sleep(1000);
+					} catch (InterruptedException ie) {
+						break;
+					}
+				}
+			}
+		}
+
+		@Override
+		public void stop() {
+			this.running = false;
+			if (this.listener.isSubscribed()) {
+				this.listener.unsubscribe();
+			}
+			super.stop();
+		}
+
+	}
+
+	public int getLocalTimeout() {
+		return localTimeout;
+	}
+
+	public void setLocalTimeout(int localTimeout) {
+		if (localTimeout < 1) {
+			throw new IllegalArgumentException("Illegal localTimeout:" + localTimeout);
+		}
+		this.localTimeout = localTimeout;
+	}
+
+	/**
+	 * 发布缓存失效通知
+	 * 
+	 * @param operation
+	 *            操作标记
+	 * @param key
+	 *            缓存标识或通配规则
+	 */
+	protected void publish(char operation, String key) {
+		StringBuilder message = new StringBuilder(this.node).append('\n').append(operation);
+		if (key != null) {
+			message.append(key);
+		}
+		Jedis jedis = this.pool.getResource();
+		try {
+			jedis.publish(CHANNEL, message.toString());
+		} finally {
+			jedis.close();
+		}
+	}
+
+	/**
+	 * 获取本地缓存超时时间
+	 * 
+	 * @param timeout
+	 *            缓存超时时间（秒）
+	 * @return 本地缓存超时时间（秒）
+	 */
+	protected int getLocalTimeout(int timeout) {
+		return timeout > 0 && timeout < this.localTimeout ? timeout : this.localTimeout;
+	}
+
+	/**
+	 * 获取未过期的本地缓存值包装对象
+	 * 
+	 * @param key
+	 *            缓存标识
+	 * @param value
+	 *            本地缓存值
+	 * @return 本地缓存值包装对象（不存在或已过期时返回null）
+	 */
+	protected LocalValue getLocalValue(String key, Object value) {
+		if (!(value instanceof LocalValue)) {
+			return null;
+		}
+		LocalValue wrapper = (LocalValue) value;
+		if (wrapper.isExpired()) {
+			this.local.remove(key);
+			return null;
+		}
+		return wrapper;
+	}
+
+	@Override
+	public Object get(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Illegal key:" + key);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		LocalValue wrapper = this.getLocalValue(key, this.local.get(key));
+		if (wrapper != null) {
+			return wrapper.value;
+		}
+		Object value = this.remote.get(key);
+		if (value != null) {
+			this.local.set(key, new LocalValue(value, this.localTimeout), this.localTimeout);
+		}
+		return value;
+	}
+
+	@Override
+	public Map<String, Object> getAll(String... keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("Illegal keys:" + keys);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		Map<String, Object> values = new HashMap<String, Object>(keys.length);
+		List<String> misses = new ArrayList<String>(0);
+		for (Entry<String, Object> entry : this.local.getAll(keys).entrySet()) {
+			LocalValue wrapper = this.getLocalValue(entry.getKey(), entry.getValue());
+			if (wrapper != null) {
+				values.put(entry.getKey(), wrapper.value);
+			}
+		}
+		for (String key : keys) {
+			if (!values.containsKey(key)) {
+				misses.add(key);
+			}
+		}
+		if (!misses.isEmpty()) {
+			Map<String, Object> loaded = this.remote.getAll(misses.toArray(Strings.EMPTY_ARRAY));
+			Map<String, Object> fills = new HashMap<String, Object>(loaded.size());
+			for (Entry<String, Object> entry : loaded.entrySet()) {
+				if (entry.getValue() != null) {
+					fills.put(entry.getKey(), new LocalValue(entry.getValue(), this.localTimeout));
+				}
+			}
+			this.local.setAll(fills, this.localTimeout);
+			values.putAll(loaded);
+		}
+		return values;
+	}
+
+	@Override
+	public void set(String key, Object value) {
+		this.set(key, value, 0);
+	}
+
+	@Override
+	public void set(String key, Object value, int timeout) {
+		if (key == null) {
+			throw new IllegalArgumentException("Illegal key:" + key);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		this.remote.set(key, value, timeout);
+		this.publish(REMOVE, key);
+		int local = this.getLocalTimeout(timeout);
+		this.local.set(key, new LocalValue(value, local), local);
+	}
+
+	@Override
+	public void setAll(Map<String, Object> values) {
+		this.setAll(values, 0);
+	}
+
+	@Override
+	public void setAll(Map<String, Object> values, int timeout) {
+		if (values == null) {
+			throw new IllegalArgumentException("Illegal values:" + values);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		if (values.isEmpty()) {
+			return;
+		}
+		this.remote.setAll(values, timeout);
+		int local = this.getLocalTimeout(timeout);
+		StringBuilder keys = new StringBuilder();
+		Map<String, Object> fills = new HashMap<String, Object>(values.size());
+		for (Entry<String, Object> entry : values.entrySet()) {
+			if (keys.length() > 0) {
+				keys.append('\n');
+			}
+			keys.append(entry.getKey());
+			fills.put(entry.getKey(), new LocalValue(entry.getValue(), local));
+		}
+		this.publish(REMOVE_ALL, keys.toString());
+		this.local.setAll(fills, local);
+	}
+
+	@Override
+	public void remove(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Illegal key:" + key);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		this.remote.remove(key);
+		this.local.remove(key);
+		this.publish(REMOVE, key);
+	}
+
+	@Override
+	public void removeAll(String... keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("Illegal keys:" + keys);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		if (keys.length == 0) {
+			return;
+		}
+		this.remote.removeAll(keys);
+		StringBuilder buffer = new StringBuilder();
+		for (String key : keys) {
+			if (buffer.length() > 0) {
+				buffer.append('\n');
+			}
+			buffer.append(key);
+			this.local.remove(key);
+		}
+		this.publish(REMOVE_ALL, buffer.toString());
+	}
+
+	@Override
+	public boolean exists(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Illegal key:" + key);
+		}
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		return this.getLocalValue(key, this.local.get(key)) != null || this.remote.exists(key);
+	}
+
+	@Override
+	public void clear() {
+		if (this.destroyed) {
+			throw new RuntimeException("The cache has been destroyed");
+		}
+		this.remote.clear();
+		this.local.clear();
+		this.publish(CLEAR, null);
+	}
+
+	@Override
+	public void destroy() {
+		if (!this.destroyed) {
+			synchronized (this) {
+				if (!this.destroyed) {
+					this.subscriber.stop();
+					this.local.destroy();
+					this.remote.destroy();
+					this.destroyed = true;
+				}
+			}
+		}
+	}
+
+}